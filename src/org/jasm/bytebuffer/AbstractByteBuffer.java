@@ -1,10 +1,5 @@
 package org.jasm.bytebuffer;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -162,32 +157,37 @@ public abstract class AbstractByteBuffer implements IByteBuffer {
 	@Override
 	public Utf8String readUTF8(long offset) {
 		int length = readUnsignedShort(offset);
-		byte [] data = readByteArray(offset, length+2);
-		DataInputStream di = new DataInputStream(new ByteArrayInputStream(data));
-		try {
-			String value =  di.readUTF();
-			Utf8String result = new Utf8String();
-			result.setLength(length+2);
-			result.setValue(value);
-			return result;
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		Utf8String result = new Utf8String();
+		result.setLength(length+2);
+		result.setValue(readModifiedUtf8(offset+2, length));
+		return result;
 	}
 
 
 	@Override
 	public void writeUTF8(long offset, String value) {
-		ByteArrayOutputStream bo = new ByteArrayOutputStream();
-		DataOutputStream dos = new DataOutputStream(bo);
-		
-		try {
-			dos.writeUTF(value);
-			dos.flush();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		int length = ModifiedUtf8.getEncodedLength(value);
+		if (length > ModifiedUtf8.MAX_ENCODED_LENGTH) {
+			throw new IllegalArgumentException("encoded string too long: "+length+" bytes");
 		}
-		byte[] data = bo.toByteArray();
+		writeUnsignedShort(offset, length);
+		writeModifiedUtf8(offset+2, value, length);
+	}
+	
+	/**
+	 * decodes length bytes starting at offset, array backed buffers decode in place
+	 */
+	protected String readModifiedUtf8(long offset, int length) {
+		return ModifiedUtf8.decode(readByteArray(offset, length), 0, length);
+	}
+	
+	/**
+	 * encodes the value, whose encoded length has already been calculated, at offset,
+	 * array backed buffers encode directly into their array
+	 */
+	protected void writeModifiedUtf8(long offset, String value, int length) {
+		byte [] data = new byte[length];
+		ModifiedUtf8.encode(value, data, 0);
 		writeByteArray(offset, data);
 	}
 
@@ -1,18 +1,16 @@
 package org.jasm.bytebuffer;
 
 public class ByteArrayByteBuffer extends AbstractByteBuffer {
-	
-	private byte [] data = null;  
-	
+
+	private byte [] data = null;
+
 	public ByteArrayByteBuffer(byte[] data) {
 		this.data = data;
 	}
 
 	@Override
 	public byte[] readByteArray(long offset, int length) {
-		if (offset+length>data.length) {
-			throw new IndexOutOfBoundsException(offset+"+"+length+">"+data.length);
-		}
+		checkBounds(offset, length);
 		byte [] result = new byte[length];
 		System.arraycopy(data, (int)offset, result, 0, length);
 		return result;
@@ -20,10 +18,105 @@ public class ByteArrayByteBuffer extends AbstractByteBuffer {
 
 	@Override
 	public void writeByteArray(long offset, byte[] value) {
-		if (offset+value.length>data.length) {
-			throw new IndexOutOfBoundsException(offset+"+"+value.length+">"+data.length);
-		}
+		checkBounds(offset, value.length);
 		System.arraycopy(value, 0, data, (int)offset, value.length);
 	}
 
+	//Primitives are read and written directly from and into the array (big endian)
+
+	@Override
+	public byte readByte(long offset) {
+		checkBounds(offset, 1);
+		return data[(int)offset];
+	}
+
+	@Override
+	public void writeByte(long offset, byte value) {
+		checkBounds(offset, 1);
+		data[(int)offset] = value;
+	}
+
+	@Override
+	public short readUnsignedByte(long offset) {
+		checkBounds(offset, 1);
+		return (short)(data[(int)offset] & 0xFF);
+	}
+
+	@Override
+	public void writeUnsignedByte(long offset, short value) {
+		checkBounds(offset, 1);
+		data[(int)offset] = (byte)value;
+	}
+
+	@Override
+	public int readUnsignedShort(long offset) {
+		checkBounds(offset, 2);
+		int i = (int)offset;
+		return (data[i] & 0xFF)<<8 | (data[i+1] & 0xFF);
+	}
+
+	@Override
+	public void writeUnsignedShort(long offset, int value) {
+		checkBounds(offset, 2);
+		int i = (int)offset;
+		data[i] = (byte)(value>>>8);
+		data[i+1] = (byte)value;
+	}
+
+	@Override
+	public long readUnsignedInt(long offset) {
+		return readInt(offset) & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public void writeUnsignedInt(long offset, long value) {
+		writeInt(offset, (int)value);
+	}
+
+	@Override
+	public int readInt(long offset) {
+		checkBounds(offset, 4);
+		int i = (int)offset;
+		return data[i]<<24 | (data[i+1] & 0xFF)<<16 | (data[i+2] & 0xFF)<<8 | (data[i+3] & 0xFF);
+	}
+
+	@Override
+	public void writeInt(long offset, int value) {
+		checkBounds(offset, 4);
+		int i = (int)offset;
+		data[i] = (byte)(value>>>24);
+		data[i+1] = (byte)(value>>>16);
+		data[i+2] = (byte)(value>>>8);
+		data[i+3] = (byte)value;
+	}
+
+	@Override
+	public long readLong(long offset) {
+		return ((long)readInt(offset))<<32 | (readInt(offset+4) & 0xFFFFFFFFL);
+	}
+
+	@Override
+	public void writeLong(long offset, long value) {
+		writeInt(offset, (int)(value>>>32));
+		writeInt(offset+4, (int)value);
+	}
+
+	@Override
+	protected String readModifiedUtf8(long offset, int length) {
+		checkBounds(offset, length);
+		return ModifiedUtf8.decode(data, (int)offset, length);
+	}
+
+	@Override
+	protected void writeModifiedUtf8(long offset, String value, int length) {
+		checkBounds(offset, length);
+		ModifiedUtf8.encode(value, data, (int)offset);
+	}
+
+	private void checkBounds(long offset, int length) {
+		if (offset+length>data.length) {
+			throw new IndexOutOfBoundsException(offset+"+"+length+">"+data.length);
+		}
+	}
+
 }
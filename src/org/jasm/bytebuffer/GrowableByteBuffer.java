@@ -0,0 +1,165 @@
+package org.jasm.bytebuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ *
+ * @author ac
+ * Append only ByteBuffer, which grows while it is written. Its size is the highest
+ * offset written so far, so the items can be written in one forward pass without
+ * calculating their lengths first. Already written positions may be overwritten,
+ * which is used to back-patch length fields.
+ */
+public class GrowableByteBuffer extends AbstractByteBuffer {
+	
+	private byte [] data = null;
+	private int size = 0;
+	
+	public GrowableByteBuffer() {
+		this(1024);
+	}
+	
+	public GrowableByteBuffer(int initialCapacity) {
+		this.data = new byte[Math.max(initialCapacity, 16)];
+	}
+	
+	/**
+	 *
+	 * @return the number of bytes written
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	public byte[] toByteArray() {
+		return Arrays.copyOf(data, size);
+	}
+	
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(data, 0, size);
+	}
+	
+	@Override
+	public byte[] readByteArray(long offset, int length) {
+		checkBounds(offset, length);
+		byte [] result = new byte[length];
+		System.arraycopy(data, (int)offset, result, 0, length);
+		return result;
+	}
+	
+	@Override
+	public void writeByteArray(long offset, byte[] value) {
+		int i = grow(offset, value.length);
+		System.arraycopy(value, 0, data, i, value.length);
+	}
+	
+	@Override
+	public byte readByte(long offset) {
+		checkBounds(offset, 1);
+		return data[(int)offset];
+	}
+	
+	@Override
+	public void writeByte(long offset, byte value) {
+		int i = grow(offset, 1);
+		data[i] = value;
+	}
+	
+	@Override
+	public short readUnsignedByte(long offset) {
+		checkBounds(offset, 1);
+		return (short)(data[(int)offset] & 0xFF);
+	}
+	
+	@Override
+	public void writeUnsignedByte(long offset, short value) {
+		int i = grow(offset, 1);
+		data[i] = (byte)value;
+	}
+	
+	@Override
+	public int readUnsignedShort(long offset) {
+		checkBounds(offset, 2);
+		int i = (int)offset;
+		return (data[i] & 0xFF)<<8 | (data[i+1] & 0xFF);
+	}
+	
+	@Override
+	public void writeUnsignedShort(long offset, int value) {
+		int i = grow(offset, 2);
+		data[i] = (byte)(value>>>8);
+		data[i+1] = (byte)value;
+	}
+	
+	@Override
+	public long readUnsignedInt(long offset) {
+		return readInt(offset) & 0xFFFFFFFFL;
+	}
+	
+	@Override
+	public void writeUnsignedInt(long offset, long value) {
+		writeInt(offset, (int)value);
+	}
+	
+	@Override
+	public int readInt(long offset) {
+		checkBounds(offset, 4);
+		int i = (int)offset;
+		return data[i]<<24 | (data[i+1] & 0xFF)<<16 | (data[i+2] & 0xFF)<<8 | (data[i+3] & 0xFF);
+	}
+	
+	@Override
+	public void writeInt(long offset, int value) {
+		int i = grow(offset, 4);
+		data[i] = (byte)(value>>>24);
+		data[i+1] = (byte)(value>>>16);
+		data[i+2] = (byte)(value>>>8);
+		data[i+3] = (byte)value;
+	}
+	
+	@Override
+	public long readLong(long offset) {
+		return ((long)readInt(offset))<<32 | (readInt(offset+4) & 0xFFFFFFFFL);
+	}
+	
+	@Override
+	public void writeLong(long offset, long value) {
+		writeInt(offset, (int)(value>>>32));
+		writeInt(offset+4, (int)value);
+	}
+	
+	@Override
+	protected String readModifiedUtf8(long offset, int length) {
+		checkBounds(offset, length);
+		return ModifiedUtf8.decode(data, (int)offset, length);
+	}
+	
+	@Override
+	protected void writeModifiedUtf8(long offset, String value, int length) {
+		int i = grow(offset, length);
+		ModifiedUtf8.encode(value, data, i);
+	}
+	
+	private int grow(long offset, int length) {
+		if (offset<0 || offset+length>Integer.MAX_VALUE) {
+			throw new IndexOutOfBoundsException(offset+"+"+length);
+		}
+		int end = (int)offset+length;
+		if (end>data.length) {
+			data = Arrays.copyOf(data, Math.max(end, data.length*2));
+		}
+		if (end>size) {
+			size = end;
+		}
+		return (int)offset;
+	}
+	
+	private void checkBounds(long offset, int length) {
+		if (offset<0 || offset+length>size) {
+			throw new IndexOutOfBoundsException(offset+"+"+length+">"+size);
+		}
+	}
+	
+}
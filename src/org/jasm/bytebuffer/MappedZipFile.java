@@ -0,0 +1,269 @@
+package org.jasm.bytebuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ *
+ * @author ac
+ * Maps a zip (or jar) file into memory and gives access to the stored (uncompressed)
+ * entries as slices of the mapping, so that they can be read without copying.
+ * Deflated entries are inflated by {@link #readEntry(String)} into arrays of their exact size,
+ * with pooled inflaters and an input buffer reused by every thread. Other entries aren't handled,
+ * the caller has to fall back to java.util.zip. Zip64 archives and archives with offsets out of the file's
+ * range aren't mapped at all, the constructor throws an IOException for them.
+ */
+public class MappedZipFile {
+	
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+	private static final int END_LENGTH = 22;
+	private static final int ZIP64_LOCATOR_LENGTH = 20;
+	private static final int LOCAL_HEADER_LENGTH = 30;
+	private static final int CENTRAL_HEADER_LENGTH = 46;
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+	private static final int UNSUPPORTED = -1;
+	private static final int MAX_POOLED_INFLATERS = 16;
+	
+	private static final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<Inflater>(MAX_POOLED_INFLATERS);
+	
+	private static final ThreadLocal<byte[]> inputBuffers = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[8*1024];
+		}
+	};
+	
+	private File file;
+	private MappedByteBuffer mapping;
+	private Map<String, Entry> entries = new HashMap<String, Entry>();
+	
+	public MappedZipFile(File file) throws IOException {
+		this.file = file;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size()>Integer.MAX_VALUE) {
+				throw new IOException(file.getAbsolutePath()+" is too large to be mapped");
+			}
+			mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+		readCentralDirectory();
+	}
+	
+	/**
+	 *
+	 * @param name the entry name
+	 * @return a buffer over the entry's data or null if the entry doesn't exist, is compressed or can't be read from the mapping
+	 */
+	public IByteBuffer getStoredEntry(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null || entry.method != STORED) {
+			return null;
+		}
+		ByteBuffer data = getData(name, entry);
+		if (data == null) {
+			return null;
+		}
+		return new NioByteBuffer(data);
+	}
+	
+	/**
+	 *
+	 * @param name the entry name
+	 * @return the entry's content or null if the entry doesn't exist, is neither stored nor deflated or can't be read from the mapping
+	 */
+	public byte [] readEntry(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null || entry.method == UNSUPPORTED) {
+			return null;
+		}
+		ByteBuffer data = getData(name, entry);
+		if (data == null) {
+			return null;
+		}
+		byte [] result = new byte[entry.size];
+		if (entry.method == STORED) {
+			data.get(result);
+			return result;
+		} else if (entry.method == DEFLATED) {
+			//the inflater needs an additional dummy byte in nowrap mode
+			byte [] input = inputBuffers.get();
+			if (input.length < entry.compressedSize+1) {
+				input = new byte[Math.max(entry.compressedSize+1, 2*input.length)];
+				inputBuffers.set(input);
+			}
+			data.get(input, 0, entry.compressedSize);
+			input[entry.compressedSize] = 0;
+			Inflater inflater = inflaters.poll();
+			if (inflater == null) {
+				inflater = new Inflater(true);
+			}
+			inflater.setInput(input, 0, entry.compressedSize+1);
+			try {
+				int read = 0;
+				while (read < result.length) {
+					int count = inflater.inflate(result, read, result.length-read);
+					if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					read+=count;
+				}
+				if (read != result.length) {
+					throw new IllegalStateException("corrupt entry "+name+" in "+file.getAbsolutePath());
+				}
+			} catch (DataFormatException e) {
+				throw new IllegalStateException("corrupt entry "+name+" in "+file.getAbsolutePath(), e);
+			} finally {
+				releaseInflater(inflater);
+			}
+			return result;
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * ends the pooled inflaters, freeing their native memory
+	 */
+	public static void releaseInflaters() {
+		Inflater inflater;
+		while ((inflater = inflaters.poll()) != null) {
+			inflater.end();
+		}
+	}
+	
+	private static void releaseInflater(Inflater inflater) {
+		inflater.reset();
+		if (!inflaters.offer(inflater)) {
+			inflater.end();
+		}
+	}
+	
+	public boolean isStored(String name) {
+		Entry entry = entries.get(name);
+		return entry != null && entry.method == STORED;
+	}
+	
+	public boolean contains(String name) {
+		return entries.containsKey(name);
+	}
+	
+	/**
+	 * @return the entry's data or null if its local header is corrupt, java.util.zip decides about those
+	 */
+	private ByteBuffer getData(String name, Entry entry) {
+		ByteBuffer view = littleEndianView();
+		if (view.getInt(entry.localHeaderOffset) != LOCAL_HEADER_SIGNATURE) {
+			return null;
+		}
+		int nameLength = view.getShort(entry.localHeaderOffset+26) & 0xFFFF;
+		int extraLength = view.getShort(entry.localHeaderOffset+28) & 0xFFFF;
+		long start = (long)entry.localHeaderOffset+LOCAL_HEADER_LENGTH+nameLength+extraLength;
+		if (start+entry.compressedSize > view.capacity()) {
+			return null;
+		}
+		view.position((int)start);
+		view.limit((int)start+entry.compressedSize);
+		return view;
+	}
+	
+	public File getFile() {
+		return file;
+	}
+	
+	private ByteBuffer littleEndianView() {
+		return mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	private void readCentralDirectory() throws IOException {
+		ByteBuffer view = littleEndianView();
+		int end = findEndOfCentralDirectory(view);
+		if (end<0) {
+			throw new IOException("no zip file: "+file.getAbsolutePath());
+		}
+		if (end >= ZIP64_LOCATOR_LENGTH && view.getInt(end-ZIP64_LOCATOR_LENGTH) == ZIP64_LOCATOR_SIGNATURE) {
+			throw new IOException("zip64 archive: "+file.getAbsolutePath());
+		}
+		int count = view.getShort(end+10) & 0xFFFF;
+		long offset = view.getInt(end+16) & 0xFFFFFFFFL;
+		for (int i=0;i<count; i++) {
+			if (offset+CENTRAL_HEADER_LENGTH > end || view.getInt((int)offset) != CENTRAL_HEADER_SIGNATURE) {
+				throw new IOException("corrupt central directory in "+file.getAbsolutePath());
+			}
+			int position = (int)offset;
+			int flags = view.getShort(position+8) & 0xFFFF;
+			int method = view.getShort(position+10) & 0xFFFF;
+			long compressedSize = view.getInt(position+20) & 0xFFFFFFFFL;
+			long size = view.getInt(position+24) & 0xFFFFFFFFL;
+			int nameLength = view.getShort(position+28) & 0xFFFF;
+			int extraLength = view.getShort(position+30) & 0xFFFF;
+			int commentLength = view.getShort(position+32) & 0xFFFF;
+			long localHeaderOffset = view.getInt(position+42) & 0xFFFFFFFFL;
+			
+			if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+				throw new IOException("zip64 entry in "+file.getAbsolutePath());
+			}
+			if (offset+CENTRAL_HEADER_LENGTH+nameLength > end || localHeaderOffset+LOCAL_HEADER_LENGTH+compressedSize > end) {
+				throw new IOException("corrupt central directory in "+file.getAbsolutePath());
+			}
+			
+			byte [] nameBytes = new byte[nameLength];
+			ByteBuffer nameView = view.duplicate();
+			nameView.position(position+CENTRAL_HEADER_LENGTH);
+			nameView.get(nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+			if (!name.endsWith("/")) {
+				//only plain stored or deflated entries without encryption are read from the mapping,
+				//the others are kept so the caller knows it has to read them through java.util.zip 
+				boolean supported = ((method == STORED && compressedSize == size) || method == DEFLATED) && (flags & 1) == 0 && size < Integer.MAX_VALUE;
+				entries.put(name, new Entry((int)localHeaderOffset, supported?method:UNSUPPORTED, (int)compressedSize, (int)size));
+			}
+			offset+=CENTRAL_HEADER_LENGTH+nameLength+extraLength+commentLength;
+		}
+	}
+	
+	private int findEndOfCentralDirectory(ByteBuffer view) {
+		int last = view.capacity()-END_LENGTH;
+		int first = Math.max(0, last-0xFFFF);
+		for (int i=last;i>=first; i--) {
+			if (view.getInt(i) == END_SIGNATURE) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static class Entry {
+		
+		private int localHeaderOffset;
+		private int method;
+		private int compressedSize;
+		private int size;
+		
+		Entry(int localHeaderOffset, int method, int compressedSize, int size) {
+			this.localHeaderOffset = localHeaderOffset;
+			this.method = method;
+			this.compressedSize = compressedSize;
+			this.size = size;
+		}
+	}
+	
+}
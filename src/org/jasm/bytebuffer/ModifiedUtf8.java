@@ -0,0 +1,127 @@
+package org.jasm.bytebuffer;
+
+/**
+ *
+ * @author ac
+ * Encoder and decoder for the modified UTF-8 format of the class files (JVMS 4.4.7).
+ * Works directly on byte arrays without DataInput- or DataOutputStreams and has a
+ * fast path for pure ASCII strings, which are the most of the strings in a constant pool.
+ * The length prefix isn't part of the encoded data.
+ */
+public final class ModifiedUtf8 {
+	
+	public static final int MAX_ENCODED_LENGTH = 0xFFFF;
+	
+	private ModifiedUtf8() {
+		
+	}
+	
+	/**
+	 *
+	 * @return the number of bytes of the encoded value, without the length prefix
+	 */
+	public static int getEncodedLength(String value) {
+		int length = value.length();
+		int result = length;
+		for (int i=0;i<length; i++) {
+			char c = value.charAt(i);
+			if (c == 0 || c > 0x7F) {
+				result += (c > 0x7FF)?2:1;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * encodes the value into target, the caller must have checked that target is long enough
+	 * @return the number of bytes written
+	 */
+	public static int encode(String value, byte[] target, int offset) {
+		int length = value.length();
+		int pos = offset;
+		int i = 0;
+		//ASCII fast path
+		for (;i<length; i++) {
+			char c = value.charAt(i);
+			if (c == 0 || c > 0x7F) {
+				break;
+			}
+			target[pos++] = (byte)c;
+		}
+		for (;i<length; i++) {
+			char c = value.charAt(i);
+			if (c != 0 && c <= 0x7F) {
+				target[pos++] = (byte)c;
+			} else if (c <= 0x7FF) {
+				target[pos++] = (byte)(0xC0 | (c>>6));
+				target[pos++] = (byte)(0x80 | (c & 0x3F));
+			} else {
+				target[pos++] = (byte)(0xE0 | (c>>12));
+				target[pos++] = (byte)(0x80 | ((c>>6) & 0x3F));
+				target[pos++] = (byte)(0x80 | (c & 0x3F));
+			}
+		}
+		return pos-offset;
+	}
+	
+	public static byte[] encode(String value) {
+		byte [] result = new byte[getEncodedLength(value)];
+		encode(value, result, 0);
+		return result;
+	}
+	
+	/**
+	 * decodes length bytes of data starting at offset
+	 */
+	public static String decode(byte[] data, int offset, int length) {
+		char [] chars = new char[length];
+		int end = offset+length;
+		int pos = offset;
+		int count = 0;
+		//ASCII fast path
+		while (pos<end) {
+			int b = data[pos];
+			if (b < 0) {
+				break;
+			}
+			chars[count++] = (char)b;
+			pos++;
+		}
+		while (pos<end) {
+			int b = data[pos] & 0xFF;
+			if (b < 0x80) {
+				chars[count++] = (char)b;
+				pos++;
+			} else if ((b & 0xE0) == 0xC0) {
+				if (pos+1 >= end) {
+					throw malformed(pos);
+				}
+				int b2 = data[pos+1];
+				if ((b2 & 0xC0) != 0x80) {
+					throw malformed(pos+1);
+				}
+				chars[count++] = (char)(((b & 0x1F)<<6) | (b2 & 0x3F));
+				pos+=2;
+			} else if ((b & 0xF0) == 0xE0) {
+				if (pos+2 >= end) {
+					throw malformed(pos);
+				}
+				int b2 = data[pos+1];
+				int b3 = data[pos+2];
+				if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+					throw malformed(pos+1);
+				}
+				chars[count++] = (char)(((b & 0x0F)<<12) | ((b2 & 0x3F)<<6) | (b3 & 0x3F));
+				pos+=3;
+			} else {
+				throw malformed(pos);
+			}
+		}
+		return new String(chars, 0, count);
+	}
+	
+	private static IllegalArgumentException malformed(int pos) {
+		return new IllegalArgumentException("malformed modified UTF-8 input around byte "+pos);
+	}
+	
+}
@@ -0,0 +1,155 @@
+package org.jasm.bytebuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ *
+ * @author ac
+ * ByteBuffer on top of a java.nio.ByteBuffer, which may be a heap, a direct or a
+ * memory mapped buffer. Offsets are always relative to the start of the wrapped
+ * buffer and all accesses are absolute, so the same instance can be read
+ * by several threads.
+ */
+public class NioByteBuffer extends AbstractByteBuffer {
+	
+	private ByteBuffer data = null;
+	
+	public NioByteBuffer(ByteBuffer data) {
+		this.data = data.slice().order(ByteOrder.BIG_ENDIAN);
+	}
+	
+	public static NioByteBuffer wrap(byte[] data) {
+		return new NioByteBuffer(ByteBuffer.wrap(data));
+	}
+	
+	public static NioByteBuffer allocateDirect(int capacity) {
+		return new NioByteBuffer(ByteBuffer.allocateDirect(capacity));
+	}
+	
+	/**
+	 * maps the whole file read only into memory
+	 */
+	public static NioByteBuffer map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size()>Integer.MAX_VALUE) {
+				throw new IOException(file.getAbsolutePath()+" is too large to be mapped");
+			}
+			return new NioByteBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			raf.close();
+		}
+	}
+	
+	public int getCapacity() {
+		return data.capacity();
+	}
+	
+	@Override
+	public byte[] readByteArray(long offset, int length) {
+		checkBounds(offset, length);
+		byte [] result = new byte[length];
+		ByteBuffer view = data.duplicate();
+		view.position((int)offset);
+		view.get(result);
+		return result;
+	}
+	
+	@Override
+	public void writeByteArray(long offset, byte[] value) {
+		checkBounds(offset, value.length);
+		ByteBuffer view = data.duplicate();
+		view.position((int)offset);
+		view.put(value);
+	}
+	
+	@Override
+	public byte readByte(long offset) {
+		return data.get(index(offset));
+	}
+	
+	@Override
+	public void writeByte(long offset, byte value) {
+		data.put(index(offset), value);
+	}
+	
+	@Override
+	public short readUnsignedByte(long offset) {
+		return (short)(data.get(index(offset)) & 0xFF);
+	}
+	
+	@Override
+	public void writeUnsignedByte(long offset, short value) {
+		data.put(index(offset), (byte)value);
+	}
+	
+	@Override
+	public int readUnsignedShort(long offset) {
+		return data.getShort(index(offset)) & 0xFFFF;
+	}
+	
+	@Override
+	public void writeUnsignedShort(long offset, int value) {
+		data.putShort(index(offset), (short)value);
+	}
+	
+	@Override
+	public short readShort(long offset) {
+		return data.getShort(index(offset));
+	}
+	
+	@Override
+	public void writeShort(long offset, short value) {
+		data.putShort(index(offset), value);
+	}
+	
+	@Override
+	public long readUnsignedInt(long offset) {
+		return data.getInt(index(offset)) & 0xFFFFFFFFL;
+	}
+	
+	@Override
+	public void writeUnsignedInt(long offset, long value) {
+		data.putInt(index(offset), (int)value);
+	}
+	
+	@Override
+	public int readInt(long offset) {
+		return data.getInt(index(offset));
+	}
+	
+	@Override
+	public void writeInt(long offset, int value) {
+		data.putInt(index(offset), value);
+	}
+	
+	@Override
+	public long readLong(long offset) {
+		return data.getLong(index(offset));
+	}
+	
+	@Override
+	public void writeLong(long offset, long value) {
+		data.putLong(index(offset), value);
+	}
+	
+	private int index(long offset) {
+		if (offset<0 || offset>Integer.MAX_VALUE) {
+			throw new IndexOutOfBoundsException(offset+"");
+		}
+		return (int)offset;
+	}
+	
+	private void checkBounds(long offset, int length) {
+		if (offset<0 || offset+length>data.capacity()) {
+			throw new IndexOutOfBoundsException(offset+"+"+length+">"+data.capacity());
+		}
+	}
+	
+}
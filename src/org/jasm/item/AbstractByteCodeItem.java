@@ -5,7 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.codec.binary.Base64;
-import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
 import org.jasm.bytebuffer.print.IPrintable;
 import org.jasm.item.clazz.Clazz;
 import org.jasm.item.constantpool.ConstantPool;
@@ -32,6 +33,8 @@ public abstract class AbstractByteCodeItem implements IBytecodeItem, IPrintable,
 	
 	private boolean generated = false;
 	
+	private int lengthGeneration = 0;
+	
 	public IContainerBytecodeItem  getParent() {
 		return parent;
 	}
@@ -63,6 +66,9 @@ public abstract class AbstractByteCodeItem implements IBytecodeItem, IPrintable,
 			doResolve();
 		}
 		this.resolved = true;
+		if (isRoot()) {
+			clearLengthCaches();
+		}
 	}
 	
 	@Override
@@ -84,12 +90,48 @@ public abstract class AbstractByteCodeItem implements IBytecodeItem, IPrintable,
 			this.emitInternalError(e);
 		}
 		this.verified = true;
+		if (isRoot()) {
+			clearLengthCaches();
+		}
 		
 	}
 	
 	protected abstract void doResolve();
 	protected abstract void doVerify();
 	protected abstract void doResolveAfterParse();
+	
+	/**
+	 * has to be called after a change of the item's length, invalidates 
+	 * the cached lengths up to the root
+	 */
+	protected void lengthChanged() {
+		if (parent instanceof AbstractByteCodeItem) {
+			((AbstractByteCodeItem)parent).lengthChanged();
+		}
+	}
+	
+	/**
+	 * invalidates all cached lengths of the tree this item belongs to,
+	 * resolve and verify do it on the root after they are done
+	 */
+	public void clearLengthCaches() {
+		getTopItem().lengthGeneration++;
+	}
+	
+	/**
+	 * cached lengths and offsets calculated in an older generation are invalid
+	 */
+	protected int getLengthGeneration() {
+		return getTopItem().lengthGeneration;
+	}
+	
+	private AbstractByteCodeItem getTopItem() {
+		AbstractByteCodeItem result = this;
+		while (result.parent instanceof AbstractByteCodeItem) {
+			result = (AbstractByteCodeItem)result.parent;
+		}
+		return result;
+	}
 
 	@Override
 	public boolean isRoot() {
@@ -273,10 +315,30 @@ public abstract class AbstractByteCodeItem implements IBytecodeItem, IPrintable,
 	}
 
 	protected String getContentAsBase64() {
-		byte [] data = new byte[getLength()];
-		ByteArrayByteBuffer buf = new ByteArrayByteBuffer(data);
+		GrowableByteBuffer buf = new GrowableByteBuffer();
 		write(buf, 0);
-		return "["+Base64.encodeBase64String(data)+"]";
+		return "["+Base64.encodeBase64String(buf.toByteArray())+"]";
+	}
+	
+	/**
+	 * writes the item and returns the offset behind it. Written into a {@link GrowableByteBuffer}
+	 * that's the buffer's size, so the item's length hasn't to be calculated.
+	 */
+	protected static long writeItem(IBytecodeItem item, IByteBuffer target, long offset) {
+		item.write(target, offset);
+		return getOffsetAfter(item, target, offset);
+	}
+	
+	/**
+	 * 
+	 * @return the offset behind the item, which has just been written starting at offset
+	 */
+	protected static long getOffsetAfter(IBytecodeItem item, IByteBuffer target, long offset) {
+		if (target instanceof GrowableByteBuffer) {
+			return ((GrowableByteBuffer)target).getSize();
+		} else {
+			return offset+item.getLength();
+		}
 	}
 	
 	protected String createItemsListArg(AbstractByteCodeItem[] args) {
@@ -8,7 +8,7 @@ import org.jasm.bytebuffer.print.IPrintable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends AbstractByteCodeItem implements IContainerBytecodeItem<T> {
+public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends AbstractLengthCachingItem implements IContainerBytecodeItem<T> {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
@@ -70,11 +70,11 @@ public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends
 		int i=0;
 		for (IBytecodeItem item: items) {
 			if (item != null) {
-				item.write(target, currentOffset);
+				long nextOffset = writeItem(item, target, currentOffset);
 				if (log.isDebugEnabled()) {
-					log.debug("wrote item "+i+"/"+size+":"+item+";currentOffset="+currentOffset+"; item.length="+item.getLength());
+					log.debug("wrote item "+i+"/"+size+":"+item+";currentOffset="+currentOffset+"; item.length="+(nextOffset-currentOffset));
 				}
-				currentOffset+=item.getLength();
+				currentOffset = nextOffset;
 				i++;
 			}
 		}
@@ -84,10 +84,16 @@ public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends
 	public void clear() {
 		items.clear();
 		size = 0;
+		lengthChanged();
 	}
 	
 	@Override
 	public int getLength() {
+		return getCachedLength();
+	}
+	
+	@Override
+	protected int calculateLength() {
 		int result = sizeFieldLength();
 		for (IBytecodeItem item: items) {
 			if (item != null) {
@@ -151,6 +157,7 @@ public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends
 			}
 		}
 		item.setParent(this);
+		lengthChanged();
 	}
 	
 	public void add(int index, T item) {
@@ -163,6 +170,7 @@ public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends
 			}
 		}
 		item.setParent(this);
+		lengthChanged();
 	}
 	
 	public void remove( T item) {
@@ -181,6 +189,7 @@ public abstract class AbstractBytecodeItemList<T extends IBytecodeItem> extends
 					}
 				}
 			}
+			lengthChanged();
 		}
 	}
 	
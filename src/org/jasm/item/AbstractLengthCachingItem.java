@@ -0,0 +1,43 @@
+package org.jasm.item;
+
+/**
+ *
+ * @author ac
+ * Base of the containers calculating their length from their children. The length
+ * is calculated only once, until lengthChanged() is called on the container or on one of its descendants
+ * or the cached lengths of the whole tree are cleared.
+ */
+public abstract class AbstractLengthCachingItem extends AbstractByteCodeItem {
+
+	private int cachedLength = -1;
+	private int cachedLengthGeneration = 0;
+
+	@Override
+	public void setParent(IContainerBytecodeItem parent) {
+		super.setParent(parent);
+		this.cachedLength = -1;
+	}
+
+	/**
+	 * containers return it from getLength()
+	 */
+	protected int getCachedLength() {
+		int generation = getLengthGeneration();
+		int result = cachedLength;
+		if (result < 0 || cachedLengthGeneration != generation) {
+			result = calculateLength();
+			cachedLength = result;
+			cachedLengthGeneration = generation;
+		}
+		return result;
+	}
+
+	protected abstract int calculateLength();
+
+	@Override
+	protected void lengthChanged() {
+		cachedLength = -1;
+		super.lengthChanged();
+	}
+
+}
@@ -204,8 +204,10 @@ public class Attribute extends AbstractByteCodeItem implements IContainerBytecod
 			log.debug("Write attribute at "+offset+" content "+content.getClass().getSimpleName()+" at "+(offset+6));
 		}
 		target.writeUnsignedShort(offset, name.getIndexInPool());
-		target.writeUnsignedInt(offset+2, content.getLength());
-		content.write(target, offset+6);
+		target.writeUnsignedInt(offset+2, 0);
+		long endOffset = writeItem(content, target, offset+6);
+		//back-patching the length
+		target.writeUnsignedInt(offset+2, endOffset-offset-6);
 	}
 
 	@Override
@@ -288,6 +290,7 @@ public class Attribute extends AbstractByteCodeItem implements IContainerBytecod
 	public void setContent(IAttributeContent content) {
 		content.setParent(this);
 		this.content = content;
+		lengthChanged();
 	}
 
 	@Override
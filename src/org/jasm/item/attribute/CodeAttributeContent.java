@@ -7,6 +7,7 @@ import org.jasm.bytebuffer.IByteBuffer;
 import org.jasm.bytebuffer.print.IPrintable;
 import org.jasm.bytebuffer.print.SimplePrintable;
 import org.jasm.environment.Environment;
+import org.jasm.item.AbstractLengthCachingItem;
 import org.jasm.item.IBytecodeItem;
 import org.jasm.item.IContainerBytecodeItem;
 import org.jasm.item.clazz.IAttributesContainer;
@@ -17,7 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-public class CodeAttributeContent extends AbstractSimpleAttributeContent implements IContainerBytecodeItem<IBytecodeItem>, IAttributesContainer {
+public class CodeAttributeContent extends AbstractLengthCachingItem implements IAttributeContent, IContainerBytecodeItem<IBytecodeItem>, IAttributesContainer {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
@@ -43,6 +44,11 @@ public class CodeAttributeContent extends AbstractSimpleAttributeContent impleme
 		instructions.setParent(this);
 	}
 	
+	@Override
+	public void prepareRead(int length) {
+		//the length of the content follows from its children
+	}
+	
 	@Override
 	public void read(IByteBuffer source, long offset) {
 		long currentOffset = offset;
@@ -64,15 +70,18 @@ public class CodeAttributeContent extends AbstractSimpleAttributeContent impleme
 		currentOffset+=2;
 		target.writeUnsignedShort(currentOffset, maxLocals);
 		currentOffset+=2;
-		instructions.write(target, currentOffset);
-		currentOffset+=instructions.getLength();
-		exceptionTable.write(target, currentOffset);
-		currentOffset+=exceptionTable.getLength();
+		currentOffset = writeItem(instructions, target, currentOffset);
+		currentOffset = writeItem(exceptionTable, target, currentOffset);
 		attributes.write(target, currentOffset);
 	}
 
 	@Override
 	public int getLength() {
+		return getCachedLength();
+	}
+	
+	@Override
+	protected int calculateLength() {
 		return 2+2+instructions.getLength()+exceptionTable.getLength()+attributes.getLength();
 	}
 
@@ -6,13 +6,19 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.jasm.bytebuffer.IByteBuffer;
 import org.jasm.bytebuffer.print.IPrintable;
 import org.jasm.bytebuffer.print.SimplePrintable;
 import org.jasm.environment.Environment;
 import org.jasm.item.AbstractByteCodeItem;
+import org.jasm.item.AbstractLengthCachingItem;
 import org.jasm.item.IBytecodeItem;
 import org.jasm.item.IContainerBytecodeItem;
 import org.jasm.item.IErrorEmitter;
@@ -24,6 +30,7 @@ import org.jasm.item.constantpool.IConstantPoolReference;
 import org.jasm.item.instructions.Instructions;
 import org.jasm.item.modifier.ClassModifier;
 import org.jasm.parser.AssemblerParser;
+import org.jasm.parser.ErrorMessage;
 import org.jasm.parser.SourceLocation;
 import org.jasm.parser.literals.AbstractLiteral;
 import org.jasm.parser.literals.FloatLiteral;
@@ -43,10 +50,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeItem<IBytecodeItem>, IConstantPoolReference, IAttributesContainer {
+public class Clazz extends AbstractLengthCachingItem implements IContainerBytecodeItem<IBytecodeItem>, IConstantPoolReference, IAttributesContainer {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
+	/**
+	 * shared by all classes, one per value of jasm.verification.threads. A pool is never shut down, 
+	 * as other threads may still verify with it, its idle workers end by themselves
+	 */
+	private static Map<Integer, ForkJoinPool> verificationPools = new HashMap<Integer, ForkJoinPool>();
+	
 	private AssemblerParser parser = null;
 	
 	private FloatLiteral version;
@@ -146,8 +159,7 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 		target.writeUnsignedShort(currentOffset+4, minorVersion);
 		target.writeUnsignedShort(currentOffset+6, majorVersion);
 		currentOffset+=8;
-		pool.write(target, currentOffset);
-		currentOffset+=pool.getLength();
+		currentOffset = writeItem(pool, target, currentOffset);
 		if (log.isDebugEnabled()) {
 			log.debug("Writing modifier, class, supetClass, currentOffset="+currentOffset);
 		}
@@ -171,15 +183,18 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 			target.writeUnsignedShort(currentOffset, pool.indexOf(cl)+1);
 		}
 		currentOffset+=2;
-		fields.write(target, currentOffset);
-		currentOffset+=fields.getLength();
-		methods.write(target, currentOffset);
-		currentOffset+=methods.getLength();
+		currentOffset = writeItem(fields, target, currentOffset);
+		currentOffset = writeItem(methods, target, currentOffset);
 		attributes.write(target, currentOffset);
 	}
 
 	@Override
 	public int getLength() {
+		return getCachedLength();
+	}
+	
+	@Override
+	protected int calculateLength() {
 		int result = 8;
 		result+=pool.getLength();
 		result+=6;
@@ -298,8 +313,13 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 			boolean verifyByteCode = Environment.getBooleanValue("jasm.verification.bytecode.enabled");
 			if (getParser().getErrorCounter() == 0 && verifyByteCode) {
 				List<Instructions> instrs = this.getDescendants(Instructions.class);
-				for (Instructions instr: instrs) {
-					instr.verifyByteCode();
+				int threads = Environment.getIntValue("jasm.verification.threads");
+				if (threads > 1 && instrs.size() > 1) {
+					verifyByteCodeInParallel(instrs, threads);
+				} else {
+					for (Instructions instr: instrs) {
+						instr.verifyByteCode();
+					}
 				}
 				
 			}
@@ -308,6 +328,62 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 		
 	}
 	
+	/**
+	 * verifies the types of all methods in parallel, then reports their errors and completes their verification 
+	 * (e.g. stackmap generation, which adds constant pool entries) in method order, 
+	 * so the errors and the generated class are the same as in sequential verification.
+	 */
+	private void verifyByteCodeInParallel(final List<Instructions> instrs, int threads) {
+		final Properties env = Environment.getContent();
+		final AssemblerParser parser = getParser();
+		final List<List<ErrorMessage>> errors = new ArrayList<List<ErrorMessage>>(instrs.size());
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(instrs.size());
+		for (int i=0;i<instrs.size(); i++) {
+			errors.add(null);
+			final int index = i;
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					//the environment is thread local
+					Environment.initFrom(env);
+					parser.startBufferingErrors();
+					try {
+						instrs.get(index).verifyTypes();
+					} finally {
+						errors.set(index, parser.stopBufferingErrors());
+					}
+					return null;
+				}
+			});
+		}
+		
+		List<Future<Void>> results = getVerificationPool(threads).invokeAll(tasks);
+		for (int i=0;i<instrs.size(); i++) {
+			parser.emitErrors(errors.get(i));
+			try {
+				results.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
+			}
+			instrs.get(i).completeVerification();
+		}
+	}
+	
+	private static synchronized ForkJoinPool getVerificationPool(int threads) {
+		ForkJoinPool result = verificationPools.get(threads);
+		if (result == null) {
+			result = new ForkJoinPool(threads);
+			verificationPools.put(threads, result);
+		}
+		return result;
+	}
+	
 	private void verifyModifiers() {
 		boolean valid = true;
 		if (getModifier().isInterface()) {
@@ -344,6 +420,7 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 					}
 				}
 				me.setSuperClass(superClassExternal);
+				getResolver().pin(superClassExternal);
 			}
 		}
 	}
@@ -355,7 +432,8 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 		} else {
 			ExternalClassInfo intfClass = checkAndLoadClassInfo(this, intfSymbol, clinfo.getClassName(), true);
 			if (intfClass != null) {
-				me.getInterfaces().add(intfClass);
+				me.addInterface(intfClass);
+				getResolver().pin(intfClass);
 				if (!intfClass.getModifier().isInterface()) {
 					valid = false;
 				} 
@@ -420,6 +498,7 @@ public class Clazz extends AbstractByteCodeItem implements IContainerBytecodeIte
 					
 				}
 			}
+			lengthChanged();
 		}
 		
 		if (thisClass != null && thisClass.isArray()) {
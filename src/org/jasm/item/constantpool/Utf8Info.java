@@ -1,16 +1,15 @@
 package org.jasm.item.constantpool;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.ModifiedUtf8;
 import org.jasm.bytebuffer.Utf8String;
 import org.jasm.bytebuffer.print.PrettyPrinter;
 import org.jasm.item.IBytecodeItem;
+import org.jasm.map.StringPool;
 import org.jasm.parser.literals.StringLiteral;
 import org.jasm.type.descriptor.IllegalDescriptorException;
 import org.jasm.type.descriptor.MethodDescriptor;
@@ -56,22 +55,13 @@ public class Utf8Info extends AbstractConstantPoolEntry {
 	}
 
 	public void setValue(String value) {
-		this.value = value;
+		this.value = StringPool.intern(value);
 		updateLength();
+		lengthChanged();
 	}
 	
 	private void updateLength() {
-		ByteArrayOutputStream bo = new ByteArrayOutputStream();
-		DataOutputStream dos = new DataOutputStream(bo);
-		
-		try {
-			dos.writeUTF(value);
-			dos.flush();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		byte[] data = bo.toByteArray();
-		this.length = data.length+1;
+		this.length = ModifiedUtf8.getEncodedLength(value)+3;
 	}
 
 	@Override
@@ -86,7 +76,7 @@ public class Utf8Info extends AbstractConstantPoolEntry {
 	public void readBody(IByteBuffer source, long offset) {
 		Utf8String value = source.readUTF8(offset);
 		this.length = value.getLength()+1;
-		this.value = value.getValue();
+		this.value = StringPool.intern(value.getValue());
 	}
 
 	@Override
@@ -16,6 +16,10 @@ public abstract class AbstractInstruction extends AbstractByteCodeItem implement
 	
 	private Label label = null;
 	
+	//maintained by Instructions
+	int indexInCode = -1;
+	int offsetInCode = -1;
+	
 	public AbstractInstruction() {
 		
 	}
@@ -36,20 +40,12 @@ public abstract class AbstractInstruction extends AbstractByteCodeItem implement
 
 	public void setOpCode(short opCode) {
 		this.opCode = opCode;
+		lengthChanged();
 	}
 
 	public int getOffsetInCode() {
 		Instructions instr = (Instructions)getParent();
-		int index = instr.indexOf(this);
-		if (index > 0) {
-			int result = 0;
-			for (int i=0;i<index; i++) {
-				result+=instr.get(i).getLength();
-			}
-			return result;
-		} else {
-			return 0;
-		}
+		return instr.getOffsetInCode(this);
 	}
 	
 	public int getIndex() {
@@ -73,6 +73,7 @@ public abstract class AbstractSwitchInstruction extends AbstractInstruction impl
 		
 		if (defaultInstr != null) {
 			setTargets(defaultInstr,iValues,targetsArray);
+			lengthChanged();
 		}
 		
 		
@@ -43,6 +43,12 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	
 	private Map<Integer, AbstractInstruction> offsets ;
 	
+	//indexes and offsets of the instructions are calculated once after a structural change or a new length generation of the tree
+	private boolean offsetsValid = false;
+	private int offsetsGeneration = 0;
+	private boolean calculatingOffsets = false;
+	private int codeLength = 0;
+	
 	private List<AbstractInstruction> items ;
 	
 	private List<MacroCall> macrocalls;
@@ -63,6 +69,7 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	private int calculatedMaxLocals = -1;
 	
 	private Verifier verifier;
+	private boolean typesVerified = false;
 	
 	public Instructions() {
 		variablesPool = new LocalVariablesPool();
@@ -137,11 +144,49 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	}
 
 	
+	/**
+	 * invalidates the indexes and offsets of the instructions, they 
+	 * are calculated again when they are needed next time
+	 */
 	public void setOffsets() {
-		offsets.clear();
-		for (int i=0;i<items.size(); i++) {
-			AbstractInstruction instruction = items.get(i);
-			offsets.put(instruction.getOffsetInCode(), instruction);
+		lengthChanged();
+	}
+	
+	@Override
+	protected void lengthChanged() {
+		offsetsValid = false;
+		super.lengthChanged();
+	}
+	
+	private void calculateOffsets() {
+		if ((offsetsValid && offsetsGeneration == getLengthGeneration()) || calculatingOffsets) {
+			return;
+		}
+		calculatingOffsets = true;
+		try {
+			offsets.clear();
+			int offset = 0;
+			for (int i=0;i<items.size(); i++) {
+				AbstractInstruction instruction = items.get(i);
+				//set before getLength(), switches need their own offset for the padding
+				instruction.indexInCode = i;
+				instruction.offsetInCode = offset;
+				offsets.put(offset, instruction);
+				offset+=instruction.getLength();
+			}
+			codeLength = offset;
+			offsetsValid = true;
+			offsetsGeneration = getLengthGeneration();
+		} finally {
+			calculatingOffsets = false;
+		}
+	}
+	
+	int getOffsetInCode(AbstractInstruction item) {
+		if (indexOf(item) > 0) {
+			return item.offsetInCode;
+		} else {
+			return 0;
 		}
 	}
 	
@@ -149,11 +194,13 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	public void addWithoutSetOffsets(AbstractInstruction item) {
 		item.setParent(this);
 		items.add(item);
+		lengthChanged();
 	}
 	
 	public void addWithoutSetOffsets(int index, AbstractInstruction item) {
 		item.setParent(this);
 		items.add(index, item);
+		lengthChanged();
 	}
 
 	public void add(AbstractInstruction item) {
@@ -182,6 +229,7 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	}
 	
 	public AbstractInstruction getInstructionAtOffset(int offset) {
+		calculateOffsets();
 		if (!offsets.containsKey(offset)) {
 			throw new IllegalArgumentException("Illegal Offset: "+offset);
 		}
@@ -202,11 +250,15 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 		}
 		currentOffset+=4;
 		AbstractInstruction instr = null;
+		offsets.clear();
+		calculatingOffsets = true;
 		while (currentOffset<(offset+codeLength+4)) {
 			instr = createEmptyItem(source, currentOffset);
 			instr.setParent(this);
+			instr.indexInCode = items.size();
+			instr.offsetInCode = (int)(currentOffset-offset-4);
 			items.add(instr);
-			offsets.put(instr.getOffsetInCode(), instr);
+			offsets.put(instr.offsetInCode, instr);
 			if (instr.isWide()) {
 				instr.read(source, currentOffset+2);
 			} else {
@@ -221,9 +273,13 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 			
 			currentOffset+=instr.getLength();
 		}
+		calculatingOffsets = false;
 		if (currentOffset!=(offset+codeLength+4)) {
 			throw new IllegalStateException("last instruction + ("+Integer.toHexString(instr.getOpCode())+") out of code bound: "+currentOffset+"!="+(offset+codeLength+4));
 		}
+		this.codeLength = (int)codeLength;
+		offsetsValid = true;
+		offsetsGeneration = getLengthGeneration();
 		
 	}
 
@@ -232,14 +288,10 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	@Override
 	public void write(IByteBuffer target, long offset) {
 		long currentOffset = offset;
-		long codeLength = getLength()-4;
-		if (codeLength > Integer.MAX_VALUE) {
-			throw new RuntimeException("Super long methods not supported!");
-		}
 		if (log.isDebugEnabled()) {
-			log.debug("Writing instructions,offset="+currentOffset+", codeLength = "+codeLength);
+			log.debug("Writing instructions,offset="+currentOffset);
 		}
-		target.writeUnsignedInt(currentOffset, codeLength);
+		target.writeUnsignedInt(currentOffset, 0);
 		currentOffset+=4;
 		for (AbstractInstruction instr: items) {
 			if (instr.isWide()) {
@@ -254,14 +306,18 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 			} else {
 				instr.write(target, currentOffset+1);
 			}
+			long nextOffset = getOffsetAfter(instr, target, currentOffset);
 			if (log.isDebugEnabled()) {
-				log.debug("Written instruction "+instr.getPrintName()+" at offset = "+currentOffset+", length="+instr.getLength());
+				log.debug("Written instruction "+instr.getPrintName()+" at offset = "+currentOffset+", length="+(nextOffset-currentOffset));
 			}
-			currentOffset+=instr.getLength();
+			currentOffset = nextOffset;
 		}
-		if (currentOffset!=(offset+codeLength+4)) {
-			throw new IllegalStateException("last instruction out of code bound: "+currentOffset+"!="+(offset+codeLength+4));
+		long codeLength = currentOffset-offset-4;
+		if (codeLength > Integer.MAX_VALUE) {
+			throw new RuntimeException("Super long methods not supported!");
 		}
+		//back-patching the code length
+		target.writeUnsignedInt(offset, codeLength);
 		
 	}
 
@@ -269,13 +325,8 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 
 	@Override
 	public int getLength() {
-		int result = 4;
-		for (IBytecodeItem item: items) {
-			if (item != null) {
-				result+=item.getLength();
-			}
-		}
-		return result;
+		calculateOffsets();
+		return 4+codeLength;
 	}
 
 
@@ -408,7 +459,13 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 
 	@Override
 	public int indexOf(AbstractInstruction item) {
-		return items.indexOf(item);
+		calculateOffsets();
+		int index = item.indexInCode;
+		if (index>=0 && index<items.size() && items.get(index) == item) {
+			return index;
+		} else {
+			return -1;
+		}
 	}
 
 
@@ -453,6 +510,7 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 					instr.setGenerated(true);
 					instr.setSourceLocation(call.getSourceLocation());
 					items.add(offset+call.getIndex(), instr);
+					lengthChanged();
 					offset++;
 				}
 			}	
@@ -473,6 +531,7 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 					if (newInstr != null) {
 						newInstr.setParent(this);
 						items.set(i, newInstr);
+						lengthChanged();
 						symbolTable.replace(instr, newInstr);
 						newInstr.resolve();
 					}
@@ -657,18 +716,39 @@ public class Instructions extends AbstractByteCodeItem implements IContainerByte
 	}
 	
 	public void verifyByteCode() {
+		verifyTypes();
+		completeVerification();
+	}
+	
+	/**
+	 * the part of the verification which only touches this method, so the methods of a class
+	 * may do it in parallel. {@link #completeVerification()} has to follow in method order.
+	 */
+	public void verifyTypes() {
 		try {
 			if (!verifier.isHasErrors() && !verifier.isHasUnsupportedCode()) {
 				verifier.verify();
+				typesVerified = true;
+			}
+		} catch (VerifyException e) {
+			emitCodeVerifyError(e);
+		}
+	}
+	
+	public void completeVerification() {
+		if (typesVerified) {
+			typesVerified = false;
+			try {
+				verifier.generatePendingStackMap();
 				CodeAttributeContent code = (CodeAttributeContent)getParent();
 				if (code.getMaxStack()<0) {
 					code.setMaxStack(verifier.getMaxRecordedStackSize());
 				}
 				//Dump verifier to save memory .
 				verifier = null;
+			} catch (VerifyException e) {
+				emitCodeVerifyError(e);
 			}
-		} catch (VerifyException e) {
-			emitCodeVerifyError(e);
 		}
 	}
 	
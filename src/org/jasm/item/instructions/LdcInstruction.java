@@ -106,7 +106,7 @@ public class LdcInstruction extends AbstractInstruction implements IConstantPool
 		cpEntry = getConstantPool().checkAndLoadFromSymbolTable(this, new Class[]{StringInfo.class,IntegerInfo.class,FloatInfo.class,ClassInfo.class,MethodHandleInfo.class,MethodTypeInfo.class}, cpEntryReference);
 		
 		if (cpEntry != null && cpEntry.getIndexInPool()>255) {
-			opCode = OpCodes.ldc_w;
+			setOpCode(OpCodes.ldc_w);
 		}
 	}
 
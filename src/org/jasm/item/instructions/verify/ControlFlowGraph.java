@@ -0,0 +1,174 @@
+package org.jasm.item.instructions.verify;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+
+import org.jasm.item.attribute.ExceptionHandler;
+
+/**
+ *
+ * @author ac
+ * The basic blocks of a method. A block starts at the first instruction, at every branch or exception handler target
+ * and after every instruction which doesn't simply fall through to the next one.
+ * The blocks are numbered in reverse postorder of a depth first search from the first block, following branches and exception handlers,
+ * so a worklist processing the lowest number first visits the predecessors of a block before the block itself, except along back edges.
+ */
+class ControlFlowGraph {
+	
+	private int [] starts;
+	private int [] ends;
+	private int [] blockOf;
+	
+	/**
+	 * @param followers the normal followers of every instruction
+	 * @param exceptionHandlers the handlers of the method
+	 * @param branchTargets all branch targets, including those which are reached by falling through as well
+	 */
+	ControlFlowGraph(int size, int [][] followers, ExceptionHandlerRanges exceptionHandlers, Set<Integer> branchTargets) {
+		BitSet leaders = new BitSet(size);
+		if (size > 0) {
+			leaders.set(0);
+		}
+		for (Integer target: branchTargets) {
+			leaders.set(target);
+		}
+		for (int i=0;i<size; i++) {
+			int [] instrFollowers = followers[i];
+			if (instrFollowers.length != 1 || instrFollowers[0] != i+1) {
+				for (int f: instrFollowers) {
+					leaders.set(f);
+				}
+				if (i+1<size) {
+					leaders.set(i+1);
+				}
+			}
+		}
+		for (ExceptionHandler handler: exceptionHandlers.getHandlers()) {
+			leaders.set(handler.getHandlerInstruction().getIndex());
+		}
+		
+		int blockCount = leaders.cardinality();
+		int [] leaderStarts = new int[blockCount];
+		int [] leaderBlockOf = new int[size];
+		int block = -1;
+		for (int i=0;i<size; i++) {
+			if (leaders.get(i)) {
+				block++;
+				leaderStarts[block] = i;
+			}
+			leaderBlockOf[i] = block;
+		}
+		
+		int [] order = calculateReversePostorder(leaderStarts, leaderBlockOf, size, followers, exceptionHandlers);
+		
+		//renumbering the blocks in reverse postorder, unreachable blocks go to the end
+		int [] number = new int[blockCount];
+		Arrays.fill(number, -1);
+		int next = 0;
+		for (int b: order) {
+			number[b] = next++;
+		}
+		for (int b=0;b<blockCount; b++) {
+			if (number[b] < 0) {
+				number[b] = next++;
+			}
+		}
+		starts = new int[blockCount];
+		ends = new int[blockCount];
+		for (int b=0;b<blockCount; b++) {
+			starts[number[b]] = leaderStarts[b];
+			ends[number[b]] = ((b+1<blockCount)?leaderStarts[b+1]:size)-1;
+		}
+		blockOf = new int[size];
+		for (int i=0;i<size; i++) {
+			blockOf[i] = number[leaderBlockOf[i]];
+		}
+	}
+	
+	private static int [] calculateReversePostorder(int [] starts, int [] blockOf, int size, int [][] followers, ExceptionHandlerRanges exceptionHandlers) {
+		int blockCount = starts.length;
+		int [][] successors = new int[blockCount][];
+		BitSet targets = new BitSet(blockCount);
+		for (int b=0;b<blockCount; b++) {
+			int end = (b+1<blockCount)?starts[b+1]:size;
+			targets.clear();
+			for (int f: followers[end-1]) {
+				targets.set(blockOf[f]);
+			}
+			//the instructions of a block mostly share the same handlers array
+			ExceptionHandler [] previous = null;
+			for (int i=starts[b];i<end; i++) {
+				ExceptionHandler [] handlers = exceptionHandlers.getHandlers(i);
+				if (handlers != previous) {
+					for (ExceptionHandler handler: handlers) {
+						targets.set(blockOf[handler.getHandlerInstruction().getIndex()]);
+					}
+					previous = handlers;
+				}
+			}
+			successors[b] = new int[targets.cardinality()];
+			int j = 0;
+			for (int t = targets.nextSetBit(0); t>=0; t = targets.nextSetBit(t+1)) {
+				successors[b][j++] = t;
+			}
+		}
+		
+		int [] postorder = new int[blockCount];
+		int count = 0;
+		if (blockCount == 0) {
+			return postorder;
+		}
+		BitSet visited = new BitSet(blockCount);
+		int [] stack = new int[blockCount];
+		int [] position = new int[blockCount];
+		int top = 0;
+		stack[0] = 0;
+		visited.set(0);
+		while (top>=0) {
+			int b = stack[top];
+			if (position[b]<successors[b].length) {
+				int s = successors[b][position[b]++];
+				if (!visited.get(s)) {
+					visited.set(s);
+					stack[++top] = s;
+				}
+			} else {
+				postorder[count++] = b;
+				top--;
+			}
+		}
+		
+		int [] result = new int[count];
+		for (int i=0;i<count; i++) {
+			result[i] = postorder[count-1-i];
+		}
+		return result;
+	}
+	
+	public int getBlockCount() {
+		return starts.length;
+	}
+	
+	/**
+	 * @return the index of the first instruction of the block
+	 */
+	public int getStart(int block) {
+		return starts[block];
+	}
+	
+	/**
+	 * @return the index of the last instruction of the block
+	 */
+	public int getEnd(int block) {
+		return ends[block];
+	}
+	
+	/**
+	 * @return the block containing the instruction
+	 */
+	public int getBlock(int instructionIndex) {
+		return blockOf[instructionIndex];
+	}
+	
+}
@@ -0,0 +1,78 @@
+package org.jasm.item.instructions.verify;
+
+import java.util.BitSet;
+
+import org.jasm.item.attribute.ExceptionHandler;
+import org.jasm.item.attribute.ExceptionHandlerTable;
+
+/**
+ *
+ * @author ac
+ * The exception handlers covering every instruction of a method, in the order of the exception table.
+ * They are collected in one sweep over the instructions, a new array is only created where a handler's range
+ * starts or ends, the instructions in between share it. The arrays must not be modified.
+ */
+class ExceptionHandlerRanges {
+	
+	private static final ExceptionHandler [] NO_HANDLERS = new ExceptionHandler[0];
+	
+	private ExceptionHandler [] handlers;
+	private ExceptionHandler [][] handlersAt;
+	
+	ExceptionHandlerRanges(ExceptionHandlerTable table, int size) {
+		handlers = new ExceptionHandler[table.getSize()];
+		BitSet boundaries = new BitSet(size+1);
+		for (int i=0;i<handlers.length; i++) {
+			handlers[i] = table.get(i);
+			boundaries.set(handlers[i].getStartInstruction().getIndex());
+			boundaries.set(handlers[i].getEndInstruction().getIndex()+1);
+		}
+		handlersAt = new ExceptionHandler[size][];
+		ExceptionHandler [] current = NO_HANDLERS;
+		for (int i=0;i<size; i++) {
+			if (boundaries.get(i)) {
+				current = collectHandlers(i);
+			}
+			handlersAt[i] = current;
+		}
+	}
+	
+	private ExceptionHandler [] collectHandlers(int index) {
+		int count = 0;
+		for (ExceptionHandler handler: handlers) {
+			if (covers(handler, index)) {
+				count++;
+			}
+		}
+		if (count == 0) {
+			return NO_HANDLERS;
+		}
+		ExceptionHandler [] result = new ExceptionHandler[count];
+		count = 0;
+		for (ExceptionHandler handler: handlers) {
+			if (covers(handler, index)) {
+				result[count++] = handler;
+			}
+		}
+		return result;
+	}
+	
+	private static boolean covers(ExceptionHandler handler, int index) {
+		return handler.getStartInstruction().getIndex()<=index && handler.getEndInstruction().getIndex()>=index;
+	}
+	
+	/**
+	 * @return all handlers of the method
+	 */
+	public ExceptionHandler [] getHandlers() {
+		return handlers;
+	}
+	
+	/**
+	 * @return the handlers covering the instruction
+	 */
+	public ExceptionHandler [] getHandlers(int index) {
+		return handlersAt[index];
+	}
+	
+}
@@ -1,8 +1,9 @@
 package org.jasm.item.instructions.verify;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Stack;
 
 import org.jasm.item.attribute.AbstractStackmapFrame;
 import org.jasm.item.attribute.SameExtendedStackmapFrame;
@@ -24,96 +25,145 @@ import org.jasm.item.instructions.verify.types.VerificationType;
 import org.jasm.type.descriptor.MethodDescriptor;
 import org.jasm.type.descriptor.TypeDescriptor;
 
+/**
+ *
+ * @author ac
+ * The locals and the operand stack at one instruction. Both are plain arrays, the stack with an explicit
+ * pointer. Copies share the arrays until one of the frames writes into them, so the many copies made
+ * during type checking and inferencing don't copy the locals of large methods.
+ */
 public class Frame {
 	
+	private static final VerificationType [] EMPTY = new VerificationType[0];
+	private static final int INITIAL_STACK_SIZE = 8;
+	
 	private int maxStackSize;
 	
-	private List<VerificationType> locals;
-	private Stack<VerificationType> stack;
+	private VerificationType [] locals;
+	private VerificationType [] stack;
+	private int stackPointer = 0;
+	private boolean localsShared = false;
+	private boolean stackShared = false;
 	
 	private int currentStackSize = 0;
 	private int maxRecordedStackSize = 0;
 	
+	/**
+	 * -1 if it has to be recalculated
+	 */
 	private int activeLocals = 0;
 	
 	public Frame(int maxLocals, int maxStackSize) {
-		locals = new ArrayList<VerificationType>();
-		stack = new Stack<VerificationType>();
+		locals = new VerificationType[maxLocals];
+		Arrays.fill(locals, VerificationType.TOP);
+		stack = createStack(maxStackSize, 0);
 		this.maxStackSize = maxStackSize;
-		for (int i=0;i<maxLocals; i++) {
-			locals.add(VerificationType.TOP);
-		}
+	}
+	
+	private Frame(List<VerificationType> locals, List<VerificationType> stack, int maxStackSize) {
+		this(locals.toArray(new VerificationType[locals.size()]), stack.toArray(new VerificationType[stack.size()]), stack.size(), maxStackSize);
 		this.activeLocals = calculateActiveLocals();
 	}
 	
-	private Frame(List<VerificationType> locals, Stack<VerificationType> stack, int maxStackSize) {
-		this.locals = new ArrayList<VerificationType>();
-		this.locals.addAll(locals);
-		this.stack = new Stack<VerificationType>();
-		this.stack.addAll(stack);
+	/**
+	 * the new frame owns both arrays
+	 */
+	private Frame(VerificationType [] locals, VerificationType [] stack, int stackPointer, int maxStackSize) {
+		this.locals = locals;
 		this.maxStackSize = maxStackSize;
-		this.activeLocals = calculateActiveLocals();
+		this.stackPointer = stackPointer;
 		this.currentStackSize = 0;
-		for (VerificationType t: stack) {
-			this.currentStackSize+=t.getSize();
+		for (int i=0;i<stackPointer; i++) {
+			this.currentStackSize+=stack[i].getSize();
 		}
-		maxRecordedStackSize = currentStackSize;
 		if (currentStackSize>maxStackSize) {
 			throw new IllegalArgumentException(currentStackSize+">"+maxStackSize);
 		}
+		this.stack = stack;
+		maxRecordedStackSize = currentStackSize;
+		activeLocals = -1;
+	}
+	
+	/**
+	 * the maximal stack size is unknown (Integer.MAX_VALUE) if it has to be calculated,
+	 * so the stack starts small and grows on demand
+	 */
+	private static VerificationType [] createStack(int maxStackSize, int entries) {
+		int size = Math.max(Math.min(maxStackSize, INITIAL_STACK_SIZE), entries);
+		return (size == 0)?EMPTY:new VerificationType[size];
 	}
 	
 	private void updateMaxRecordedStackSize() {
 		maxRecordedStackSize = Math.max(maxRecordedStackSize, currentStackSize);
 	}
+	
+	private void ensureOwnLocals() {
+		if (localsShared) {
+			locals = locals.clone();
+			localsShared = false;
+		}
+	}
+	
+	private void ensureOwnStack() {
+		if (stackShared) {
+			stack = stack.clone();
+			stackShared = false;
+		}
+	}
 
 	public void push(VerificationType type) {
 		if (currentStackSize+type.getSize() > maxStackSize) {
 			throw new StackOverflowException(-1);
 		}
+		if (stackPointer == stack.length) {
+			stack = Arrays.copyOf(stack, Math.max(2*stack.length, INITIAL_STACK_SIZE));
+			stackShared = false;
+		} else {
+			ensureOwnStack();
+		}
 		currentStackSize+=type.getSize();
 		updateMaxRecordedStackSize();
-		stack.push(type);
+		stack[stackPointer++] = type;
 	}
 	
 	public VerificationType pop(VerificationType expected) {
-		if (stack.size() == 0) {
+		if (stackPointer == 0) {
 			throw new StackUnderflowException(-1);
 		}
-		VerificationType value = stack.peek();
+		VerificationType value = stack[stackPointer-1];
 		
 		if (expected.isAssignableFrom(value)) {
-			stack.pop();
+			stackPointer--;
 			currentStackSize-=value.getSize();
 			return value;
 		} else {
-			throw new UnexpectedStackTypeException(-1, stack.size()-1,expected, value);
+			throw new UnexpectedStackTypeException(-1, stackPointer-1,expected, value);
 		}
 	}
 	
 	public VerificationType peek(VerificationType expected) {
-		if (stack.size() == 0) {
+		if (stackPointer == 0) {
 			throw new StackUnderflowException(-1);
 		}
-		VerificationType value = stack.peek();
+		VerificationType value = stack[stackPointer-1];
 		
 		if (expected.isAssignableFrom(value)) {
 			return value;
 		} else {
-			throw new UnexpectedStackTypeException(-1, stack.size()-1,expected, value);
+			throw new UnexpectedStackTypeException(-1, stackPointer-1,expected, value);
 		}
 	}
 	
 	public VerificationType load(VerificationType expected, int register) {
-		if (register<0 || register>=locals.size()) {
+		if (register<0 || register>=locals.length) {
 			throw new IllegalArgumentException("illegal register index: "+register);
 		}
 		if ((expected.getSize() == 2 
-				&& register>=locals.size()-1))  {
+				&& register>=locals.length-1))  {
 			throw new IllegalArgumentException("illegal register index for two word types: "+register);
 		}
 		
-		VerificationType value = locals.get(register);
+		VerificationType value = locals[register];
 		if (!expected.isAssignableFrom(value)) {
 			throw new UnexpectedRegisterTypeException(-1, register, expected, value);
 		}
@@ -123,8 +173,15 @@ public class Frame {
 	
 	public Frame throwException(ObjectValueType t) {
 		if (VerificationType.THROWABLE.create(t.getQuery()).isAssignableFrom(t)) {
-			stack.clear();
-			stack.push(t);
+			if (stack.length == 0) {
+				stack = new VerificationType[1];
+				stackShared = false;
+			} else {
+				ensureOwnStack();
+			}
+			stack[0] = t;
+			stackPointer = 1;
+			currentStackSize = t.getSize();
 		} else {
 			throw new IllegalStateException(t.toString());
 		}
@@ -132,15 +189,15 @@ public class Frame {
 	}
 	
 	public void checkRegister(int register, VerificationType expected) {
-		VerificationType value = locals.get(register);
+		VerificationType value = locals[register];
 		if (!expected.isAssignableFrom(value)) {
 			throw new UnexpectedRegisterTypeException(-1, register, expected, value);
 		}
 	}
 	
 	public boolean isOnStack(VerificationType t) {
-		for (int i=0;i<stack.size(); i++) {
-			if (stack.get(i).equals(t)) {
+		for (int i=0;i<stackPointer; i++) {
+			if (stack[i].equals(t)) {
 				return true;
 			}
 		}
@@ -155,53 +212,54 @@ public class Frame {
 	}
 	
 	private void setRegisterValue(VerificationType value, int register) {
-		if (register<0 || register>=locals.size()) {
+		if (register<0 || register>=locals.length) {
 			throw new IllegalArgumentException("illegal register index: "+register);
 		}
 		if (value.getSize() == 2
-				&& register>=locals.size()-1)  {
+				&& register>=locals.length-1)  {
 			throw new IllegalArgumentException("illegal register index for two word types: "+register);
 		}
-		locals.set(register, value);
-		int activeLocalsCandidate = register+1;
+		ensureOwnLocals();
+		locals[register] = value;
 		if (value.getSize() == 2)  {
-			locals.set(register+1, VerificationType.TOP);
-			activeLocalsCandidate++;
+			locals[register+1] = VerificationType.TOP;
 		} else {
 			if (register>0 && 
-					(locals.get(register-1).equals(VerificationType.DOUBLE) || locals.get(register-1).equals(VerificationType.LONG))) {
-				locals.set(register-1,VerificationType.TOP);
+					(locals[register-1].equals(VerificationType.DOUBLE) || locals[register-1].equals(VerificationType.LONG))) {
+				locals[register-1] = VerificationType.TOP;
 			}
 		}
 		
-		activeLocals = Math.max(activeLocalsCandidate, activeLocals);
+		activeLocals = -1;
 	}
 	
 	public void replaceAllRegisterOccurences(VerificationType oldValue, VerificationType newValue) {
-		for (int i=0;i<locals.size(); i++) {
-			if (locals.get(i).equals(oldValue)) {
+		for (int i=0;i<locals.length; i++) {
+			if (locals[i].equals(oldValue)) {
 				setRegisterValue(newValue, i);
 			}
 		}
 	}
 	
 	public boolean isAssignableFrom(Frame other) {
-		if (other.locals.size() !=this.locals.size()) {
-			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.size()+"!="+locals.size());
+		if (other.locals.length !=this.locals.length) {
+			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.length+"!="+locals.length);
 		}
-		if (other.stack.size() != this.stack.size()) {
-			throw new InconsistentStackSizeException(-1, other.stack.size(), this.stack.size());
+		if (other.stackPointer != this.stackPointer) {
+			throw new InconsistentStackSizeException(-1, other.stackPointer, this.stackPointer);
 		}
 		
-		for (int i=0;i<this.stack.size(); i++) {
-			if (!this.stack.get(i).isAssignableFrom(other.stack.get(i))) {
-				throw new UnexpectedStackTypeException(-1, i, this.stack.get(i), other.stack.get(i));
+		for (int i=0;i<this.stackPointer; i++) {
+			if (!this.stack[i].isAssignableFrom(other.stack[i])) {
+				throw new UnexpectedStackTypeException(-1, i, this.stack[i], other.stack[i]);
 			}
 		}
 		
-		for (int i=0;i<this.locals.size(); i++) {
-			if (!this.locals.get(i).isAssignableFrom(other.locals.get(i))) {
-				throw new UnexpectedRegisterTypeException(-1, i, this.locals.get(i), other.locals.get(i));
+		if (this.locals != other.locals) {
+			for (int i=0;i<this.locals.length; i++) {
+				if (!this.locals[i].isAssignableFrom(other.locals[i])) {
+					throw new UnexpectedRegisterTypeException(-1, i, this.locals[i], other.locals[i]);
+				}
 			}
 		}
 		
@@ -209,50 +267,69 @@ public class Frame {
 	}
 	
 	public Frame merge(Frame other) {
-		if (other.locals.size() !=this.locals.size()) {
-			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.size()+"!="+locals.size());
+		if (other.locals.length !=this.locals.length) {
+			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.length+"!="+locals.length);
 		}
-		if (other.stack.size() != this.stack.size()) {
-			throw new InconsistentStackSizeException(-1, other.stack.size(), this.stack.size());
+		if (other.stackPointer != this.stackPointer) {
+			throw new InconsistentStackSizeException(-1, other.stackPointer, this.stackPointer);
 		}
 		
-		Stack newStack = new Stack();
-		List newLocals = new ArrayList();
-		
-		for (int i=0;i<this.stack.size(); i++) {
-			newStack.add(this.stack.get(i).mergeWith(other.stack.get(i)));
+		VerificationType [] newStack = createStack(maxStackSize, stackPointer);
+		for (int i=0;i<this.stackPointer; i++) {
+			newStack[i] = this.stack[i].mergeWith(other.stack[i]);
 		}
 		
-		for (int i=0;i<this.locals.size(); i++) {
-			newLocals.add(this.locals.get(i).mergeWith(other.locals.get(i)));
+		//the locals are only copied, if the merge changes one of them
+		VerificationType [] newLocals = this.locals;
+		if (this.locals != other.locals) {
+			for (int i=0;i<this.locals.length; i++) {
+				VerificationType merged = this.locals[i].mergeWith(other.locals[i]);
+				if (merged != this.locals[i] && newLocals == this.locals) {
+					newLocals = this.locals.clone();
+				}
+				newLocals[i] = merged;
+			}
 		}
 		
-		return new Frame(newLocals,newStack, maxStackSize);
+		Frame result = new Frame(newLocals,newStack, stackPointer, maxStackSize);
+		if (newLocals == this.locals) {
+			this.localsShared = true;
+			result.localsShared = true;
+		}
+		return result;
 	}
 	
 	public Frame copy() {
-		return new Frame(locals,stack,maxStackSize);
+		Frame result = new Frame(locals, stack, stackPointer, maxStackSize);
+		result.activeLocals = activeLocals;
+		this.stackShared = true;
+		result.stackShared = true;
+		this.localsShared = true;
+		result.localsShared = true;
+		return result;
 	}
 
 
 
 	public boolean equals(Frame  other) {
-		if (other.locals.size() !=this.locals.size()) {
-			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.size()+"!="+locals.size());
+		if (other.locals.length !=this.locals.length) {
+			throw new IllegalArgumentException("inconsistent locals sizes "+other.locals.length+"!="+locals.length);
 		}
-		if (other.stack.size() != this.stack.size()) {
+		if (other.stackPointer != this.stackPointer) {
 			return false;
 		}
 		
-		for (int i=0;i<this.stack.size(); i++) {
-			if (!this.stack.get(i).equals(other.stack.get(i))) {
+		for (int i=0;i<this.stackPointer; i++) {
+			if (!this.stack[i].equals(other.stack[i])) {
 				return false;
 			}
 		}
 		
-		for (int i=0;i<this.locals.size(); i++) {
-			if (!this.locals.get(i).equals(other.locals.get(i))) {
-				return false;
+		if (this.locals != other.locals) {
+			for (int i=0;i<this.locals.length; i++) {
+				if (!this.locals[i].equals(other.locals[i])) {
+					return false;
+				}
 			}
 		}
 		
@@ -264,6 +341,9 @@ public class Frame {
 	}
 	
 	public int getActiveLocals() {
+		if (activeLocals<0) {
+			activeLocals = calculateActiveLocals();
+		}
 		return activeLocals;
 	}
 
@@ -273,22 +353,23 @@ public class Frame {
 	}
 	
 	public void replaceAllStackOccurences(VerificationType oldValue,VerificationType newValue) {
-		for (int i=0;i<this.stack.size(); i++) {
-			if (this.stack.get(i).equals(oldValue)) {
-				this.stack.set(i,newValue);
+		for (int i=0;i<this.stackPointer; i++) {
+			if (this.stack[i].equals(oldValue)) {
+				ensureOwnStack();
+				this.stack[i] = newValue;
 			}
 		}
 	}
 	
 	public int countAllOccurencies(VerificationType t) {
 		int result = 0;
-		for (int i=0;i<locals.size(); i++) {
-			if (locals.get(i).equals(t)) {
+		for (int i=0;i<locals.length; i++) {
+			if (locals[i].equals(t)) {
 				result++;
 			}
 		}
-		for (int i=0;i<this.stack.size(); i++) {
-			if (this.stack.get(i).equals(t)) {
+		for (int i=0;i<this.stackPointer; i++) {
+			if (this.stack[i].equals(t)) {
 				result++;
 			}
 		}
@@ -296,15 +377,15 @@ public class Frame {
 	}
 	
 	private int calculateActiveLocals() {
-		int result = locals.size();
-		while (result>0 && locals.get(result-1) == VerificationType.TOP) {
+		int result = locals.length;
+		while (result>0 && locals[result-1] == VerificationType.TOP) {
 			result--;
 		}
 		if (result == 0) {
 			return 0;
 		} else {
-			if (locals.get(result-1).getSize() == 2) {
-				if (result == locals.size()) {
+			if (locals[result-1].getSize() == 2) {
+				if (result == locals.length) {
 					throw new IllegalStateException("two words type in the last register");
 				}
 				result++;
@@ -337,32 +418,41 @@ public class Frame {
 			throw new LocalVariablesMissingException();
 		}
 		
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		return new Frame(appendTopsIgNecessary(locals, maxLocals), stack, maxStack);
+		return new Frame(appendTopsIgNecessary(locals, maxLocals), Collections.<VerificationType>emptyList(), maxStack);
 	}
 	
 	public Frame applyStackmapSameLocalsOneStackItem(VerificationType stackItem) {
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		stack.push(stackItem);
 		if (stackItem.getSize()>maxStackSize) {
 			throw new StackmapSameLocalsStackOverflowException(-1, maxStackSize, stackItem.getSize());
 		}
-		return new Frame(locals, stack,maxStackSize);
+		VerificationType [] stack = createStack(maxStackSize, 1);
+		stack[0] = stackItem;
+		return withLocals(stack, 1);
 	}
 	
 	public Frame applyStackmapSame() {
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		return new Frame(locals, stack,maxStackSize);
+		return withLocals(createStack(maxStackSize, 0), 0);
+	}
+	
+	/**
+	 * a frame sharing the locals of this frame
+	 */
+	private Frame withLocals(VerificationType [] stack, int stackPointer) {
+		Frame result = new Frame(locals, stack, stackPointer, maxStackSize);
+		result.activeLocals = getActiveLocals();
+		this.localsShared = true;
+		result.localsShared = true;
+		return result;
 	}
 	
 	private int calculateNumberOfVariables() {
 		//calculating current number of vars
 		int numberOfVariables = 0;
-		for (int i=0;i<activeLocals; i++) {
+		for (int i=0;i<getActiveLocals(); i++) {
 			if (i==0) {
 				numberOfVariables++;
 			} else {
-				if (!(locals.get(i-1).getSize() == 2)) {
+				if (!(locals[i-1].getSize() == 2)) {
 					numberOfVariables++;
 				}
 			}
@@ -378,15 +468,15 @@ public class Frame {
 		int numberOfVariables = calculateNumberOfVariables();
 		//checking chop size
 		if (chop>numberOfVariables) {
-			throw new StackmapChopUnderflowException(-1,activeLocals,chop);
+			throw new StackmapChopUnderflowException(-1,getActiveLocals(),chop);
 		}
 		//Creating new locals 
 		List<VerificationType> newLocals = new ArrayList<VerificationType>();
 		int newNumberOfVariables = 0;
 		int i=0;
 		while (newNumberOfVariables<numberOfVariables-chop) {
-			newLocals.add(locals.get(i));
-			if (locals.get(i).getSize() == 2) {
+			newLocals.add(locals[i]);
+			if (locals[i].getSize() == 2) {
 				newLocals.add(VerificationType.TOP);
 				i++;
 			}
@@ -394,8 +484,7 @@ public class Frame {
 			i++;
 		}
 		
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		return new Frame(appendTopsIgNecessary(newLocals, locals.size()), stack,maxStackSize);
+		return new Frame(appendTopsIgNecessary(newLocals, locals.length), Collections.<VerificationType>emptyList(),maxStackSize);
 		
 	}
 	
@@ -415,12 +504,12 @@ public class Frame {
 		for (VerificationType t: appendLocals) {
 			appendSize+=t.getSize();
 		}
-		if (activeLocals+appendSize>locals.size()) {
-			throw new StackmapAppendOverflowException(-1,appendSize, activeLocals,locals.size());
+		if (getActiveLocals()+appendSize>locals.length) {
+			throw new StackmapAppendOverflowException(-1,appendSize, getActiveLocals(),locals.length);
 		}
 		List<VerificationType> newLocals = new ArrayList<VerificationType>();
-		for (int i=0;i<activeLocals; i++) {
-			newLocals.add(locals.get(i));
+		for (int i=0;i<getActiveLocals(); i++) {
+			newLocals.add(locals[i]);
 		}
 		for (VerificationType t: appendLocals) {
 			newLocals.add(t);
@@ -428,8 +517,7 @@ public class Frame {
 				newLocals.add(VerificationType.TOP);
 			}
 		}
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		return new Frame(appendTopsIgNecessary(newLocals, locals.size()), stack,maxStackSize);
+		return new Frame(appendTopsIgNecessary(newLocals, locals.length), Collections.<VerificationType>emptyList(),maxStackSize);
 		
 	}
 	
@@ -449,14 +537,14 @@ public class Frame {
 				result.add(VerificationType.TOP);
 			}
 		}
-		return appendTopsIgNecessary(result, locals.size());
+		return appendTopsIgNecessary(result, locals.length);
 	}
 	
 	
 	public Frame applyStackmapFull(List<VerificationType> fullLocals, List<VerificationType> fullStack) {
 		
-		if (calculateVarsSize(fullLocals)>locals.size()) {
-			throw new StackmapFullLocalsOverflowException(-1, locals.size(), calculateVarsSize(fullLocals));
+		if (calculateVarsSize(fullLocals)>locals.length) {
+			throw new StackmapFullLocalsOverflowException(-1, locals.length, calculateVarsSize(fullLocals));
 		}
 		
 		if (calculateVarsSize(fullStack)>maxStackSize) {
@@ -464,10 +552,7 @@ public class Frame {
 		}
 		
 		List<VerificationType> newLocals = createLocalsFromVarList(fullLocals);
-		Stack<VerificationType> stack = new Stack<VerificationType>();
-		stack.addAll(fullStack);
-		
-		return new Frame(newLocals, stack,maxStackSize);
+		return new Frame(newLocals, fullStack,maxStackSize);
 		
 	}
 	
@@ -477,30 +562,30 @@ public class Frame {
 		if (this.maxStackSize != nextFrame.maxStackSize) {
 			throw new IllegalArgumentException(this.maxStackSize+"!="+nextFrame.maxStackSize);
 		}
-		if (this.locals.size() != nextFrame.locals.size()) {
-			throw new IllegalArgumentException(this.locals.size()+"!="+nextFrame.locals.size());
+		if (this.locals.length != nextFrame.locals.length) {
+			throw new IllegalArgumentException(this.locals.length+"!="+nextFrame.locals.length);
 		}
 		
-		if (stack.size() == 0 && nextFrame.stack.size() == 0 && this.equals(nextFrame)) {
+		if (stackPointer == 0 && nextFrame.stackPointer == 0 && this.equals(nextFrame)) {
 			return new SameFrame();
-		} else if (stack.size() == 0 && nextFrame.stack.size()==1) {
+		} else if (stackPointer == 0 && nextFrame.stackPointer==1) {
 			boolean sameLocals = true;
-			for (int i=0;i<this.locals.size(); i++) {
-				if (!this.locals.get(i).equals(nextFrame.locals.get(i))) {
+			for (int i=0;i<this.locals.length; i++) {
+				if (!this.locals[i].equals(nextFrame.locals[i])) {
 					sameLocals = false;
 					break;
 				}
 			}
 			if (sameLocals) {
-				return new SameLocalsOneStackItemFrame(nextFrame.stack.get(0));
+				return new SameLocalsOneStackItemFrame(nextFrame.stack[0]);
 			} else {
 				return nextFrame.createFullFrame();
 			}
 			
-		} else if (stack.size() == 0 && nextFrame.stack.size()==0 && nextFrame.getActiveLocals()<this.getActiveLocals()) {
+		} else if (stackPointer == 0 && nextFrame.stackPointer==0 && nextFrame.getActiveLocals()<this.getActiveLocals()) {
 			boolean sameLocals = true;
 			for (int i=0;i<nextFrame.getActiveLocals(); i++) {
-				if (!this.locals.get(i).equals(nextFrame.locals.get(i))) {
+				if (!this.locals[i].equals(nextFrame.locals[i])) {
 					sameLocals = false;
 					break;
 				}
@@ -516,10 +601,10 @@ public class Frame {
 				return nextFrame.createFullFrame();
 			}
 			
-		} else if (stack.size() == 0 && nextFrame.stack.size() == 0 && nextFrame.getActiveLocals()>this.getActiveLocals()) {
+		} else if (stackPointer == 0 && nextFrame.stackPointer == 0 && nextFrame.getActiveLocals()>this.getActiveLocals()) {
 			boolean sameLocals = true;
 			for (int i=0;i<this.getActiveLocals(); i++) {
-				if (!this.locals.get(i).equals(nextFrame.locals.get(i))) {
+				if (!this.locals[i].equals(nextFrame.locals[i])) {
 					sameLocals = false;
 					break;
 				}
@@ -528,10 +613,10 @@ public class Frame {
 				List<VerificationType> l = new ArrayList<VerificationType>();
 				for (int i=getActiveLocals();i<nextFrame.getActiveLocals(); i++) {
 					if (i==getActiveLocals()) {
-						l.add(nextFrame.locals.get(i));
+						l.add(nextFrame.locals[i]);
 					} else {
-						if (!(nextFrame.locals.get(i-1).getSize() == 2)) {
-							l.add(nextFrame.locals.get(i));
+						if (!(nextFrame.locals[i-1].getSize() == 2)) {
+							l.add(nextFrame.locals[i]);
 						}
 					}
 				}
@@ -552,17 +637,17 @@ public class Frame {
 	
 	public FullFrame createFullFrame() {
 		List<VerificationType> l = new ArrayList<VerificationType>();
-		for (int i=0;i<activeLocals; i++) {
+		for (int i=0;i<getActiveLocals(); i++) {
 			if (i==0) {
-				l.add(locals.get(i));
+				l.add(locals[i]);
 			} else {
-				if (!(locals.get(i-1).getSize() == 2)) {
-					l.add(locals.get(i));
+				if (!(locals[i-1].getSize() == 2)) {
+					l.add(locals[i]);
 				}
 			}
 		}
 		List<VerificationType> s = new ArrayList<VerificationType>();
-		s.addAll(stack);
+		s.addAll(Arrays.asList(stack).subList(0, stackPointer));
 		return new FullFrame(l,s);
 	}
 	
@@ -570,23 +655,22 @@ public class Frame {
 	 * Only for Tests
 	 */
 	public VerificationType getTypeOnStack(int index) {
-		return stack.get(index);
+		return stack[index];
 	}
 	
 	public VerificationType getTypeInRegister(int index) {
-		return locals.get(index);
+		return locals[index];
 	}
 	
 	public static Frame createFrame(List<VerificationType> locals, List<VerificationType> stackValues, int maxStackSize) {
 		List<VerificationType> localValues = new ArrayList<VerificationType>();
 		localValues.addAll(locals);
-		Stack<VerificationType> values = new Stack<VerificationType>();
-		values.addAll(stackValues);
-		return new Frame(localValues, values,maxStackSize);
+		return new Frame(localValues, stackValues,maxStackSize);
 	}
 	
 	public void updateQuery(IClassQuery query) {
-		for (VerificationType t: stack) {
+		for (int i=0;i<stackPointer; i++) {
+			VerificationType t = stack[i];
 			if (t instanceof ObjectValueType) {
 				((ObjectValueType)t).setQuery(query);
 			}
@@ -601,7 +685,7 @@ public class Frame {
 
 	@Override
 	public String toString() {
-		return "Frame [locals=" + locals + ", stack=" + stack + "]";
+		return "Frame [locals=" + Arrays.asList(locals) + ", stack=" + Arrays.asList(stack).subList(0, stackPointer) + "]";
 	}
 
 	public int getMaxRecordedStackSize() {
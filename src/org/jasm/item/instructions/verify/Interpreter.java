@@ -52,413 +52,414 @@ public class Interpreter {
 	
 	public Frame doExecute(AbstractInstruction instr, Frame inputFrame) {
 
-		if (OpCodes.aaload==instr.getOpCode()) {
-		    return executeAaload(instr,inputFrame);
-		  } else if (OpCodes.aastore==instr.getOpCode()) {
-		    return executeAastore(instr,inputFrame);
-		  } else if (OpCodes.aconst_null==instr.getOpCode()) {
-		    return executeAconst_null(instr,inputFrame);
-		  } else if (OpCodes.aload==instr.getOpCode()) {
-		    return executeAload(instr,inputFrame);
-		  } else if (OpCodes.aload_0==instr.getOpCode()) {
-		    return executeAload_0(instr,inputFrame);
-		  } else if (OpCodes.aload_1==instr.getOpCode()) {
-		    return executeAload_1(instr,inputFrame);
-		  } else if (OpCodes.aload_2==instr.getOpCode()) {
-		    return executeAload_2(instr,inputFrame);
-		  } else if (OpCodes.aload_3==instr.getOpCode()) {
-		    return executeAload_3(instr,inputFrame);
-		  } else if (OpCodes.anewarray==instr.getOpCode()) {
-		    return executeAnewarray(instr,inputFrame);
-		  } else if (OpCodes.areturn==instr.getOpCode()) {
-		    return executeAreturn(instr,inputFrame);
-		  } else if (OpCodes.arraylength==instr.getOpCode()) {
-		    return executeArraylength(instr,inputFrame);
-		  } else if (OpCodes.astore==instr.getOpCode()) {
-		    return executeAstore(instr,inputFrame);
-		  } else if (OpCodes.astore_0==instr.getOpCode()) {
-		    return executeAstore_0(instr,inputFrame);
-		  } else if (OpCodes.astore_1==instr.getOpCode()) {
-		    return executeAstore_1(instr,inputFrame);
-		  } else if (OpCodes.astore_2==instr.getOpCode()) {
-		    return executeAstore_2(instr,inputFrame);
-		  } else if (OpCodes.astore_3==instr.getOpCode()) {
-		    return executeAstore_3(instr,inputFrame);
-		  } else if (OpCodes.athrow==instr.getOpCode()) {
-		    return executeAthrow(instr,inputFrame);
-		  } else if (OpCodes.baload==instr.getOpCode()) {
-		    return executeBaload(instr,inputFrame);
-		  } else if (OpCodes.bastore==instr.getOpCode()) {
-		    return executeBastore(instr,inputFrame);
-		  } else if (OpCodes.bipush==instr.getOpCode()) {
-		    return executeBipush(instr,inputFrame);
-		  } else if (OpCodes.caload==instr.getOpCode()) {
-		    return executeCaload(instr,inputFrame);
-		  } else if (OpCodes.castore==instr.getOpCode()) {
-		    return executeCastore(instr,inputFrame);
-		  } else if (OpCodes.checkcast==instr.getOpCode()) {
-		    return executeCheckcast(instr,inputFrame);
-		  } else if (OpCodes.d2f==instr.getOpCode()) {
-		    return executeD2f(instr,inputFrame);
-		  } else if (OpCodes.d2i==instr.getOpCode()) {
-		    return executeD2i(instr,inputFrame);
-		  } else if (OpCodes.d2l==instr.getOpCode()) {
-		    return executeD2l(instr,inputFrame);
-		  } else if (OpCodes.dadd==instr.getOpCode()) {
-		    return executeDadd(instr,inputFrame);
-		  } else if (OpCodes.daload==instr.getOpCode()) {
-		    return executeDaload(instr,inputFrame);
-		  } else if (OpCodes.dastore==instr.getOpCode()) {
-		    return executeDastore(instr,inputFrame);
-		  } else if (OpCodes.dcmpg==instr.getOpCode()) {
-		    return executeDcmpg(instr,inputFrame);
-		  } else if (OpCodes.dcmpl==instr.getOpCode()) {
-		    return executeDcmpl(instr,inputFrame);
-		  } else if (OpCodes.dconst_0==instr.getOpCode()) {
-		    return executeDconst_0(instr,inputFrame);
-		  } else if (OpCodes.dconst_1==instr.getOpCode()) {
-		    return executeDconst_1(instr,inputFrame);
-		  } else if (OpCodes.ddiv==instr.getOpCode()) {
-		    return executeDdiv(instr,inputFrame);
-		  } else if (OpCodes.dload==instr.getOpCode()) {
-		    return executeDload(instr,inputFrame);
-		  } else if (OpCodes.dload_0==instr.getOpCode()) {
-		    return executeDload_0(instr,inputFrame);
-		  } else if (OpCodes.dload_1==instr.getOpCode()) {
-		    return executeDload_1(instr,inputFrame);
-		  } else if (OpCodes.dload_2==instr.getOpCode()) {
-		    return executeDload_2(instr,inputFrame);
-		  } else if (OpCodes.dload_3==instr.getOpCode()) {
-		    return executeDload_3(instr,inputFrame);
-		  } else if (OpCodes.dmul==instr.getOpCode()) {
-		    return executeDmul(instr,inputFrame);
-		  } else if (OpCodes.dneg==instr.getOpCode()) {
-		    return executeDneg(instr,inputFrame);
-		  } else if (OpCodes.drem==instr.getOpCode()) {
-		    return executeDrem(instr,inputFrame);
-		  } else if (OpCodes.dreturn==instr.getOpCode()) {
-		    return executeDreturn(instr,inputFrame);
-		  } else if (OpCodes.dstore==instr.getOpCode()) {
-		    return executeDstore(instr,inputFrame);
-		  } else if (OpCodes.dstore_0==instr.getOpCode()) {
-		    return executeDstore_0(instr,inputFrame);
-		  } else if (OpCodes.dstore_1==instr.getOpCode()) {
-		    return executeDstore_1(instr,inputFrame);
-		  } else if (OpCodes.dstore_2==instr.getOpCode()) {
-		    return executeDstore_2(instr,inputFrame);
-		  } else if (OpCodes.dstore_3==instr.getOpCode()) {
-		    return executeDstore_3(instr,inputFrame);
-		  } else if (OpCodes.dsub==instr.getOpCode()) {
-		    return executeDsub(instr,inputFrame);
-		  } else if (OpCodes.dup==instr.getOpCode()) {
-		    return executeDup(instr,inputFrame);
-		  } else if (OpCodes.dup2==instr.getOpCode()) {
-		    return executeDup2(instr,inputFrame);
-		  } else if (OpCodes.dup2_x1==instr.getOpCode()) {
-		    return executeDup2_x1(instr,inputFrame);
-		  } else if (OpCodes.dup2_x2==instr.getOpCode()) {
-		    return executeDup2_x2(instr,inputFrame);
-		  } else if (OpCodes.dup_x1==instr.getOpCode()) {
-		    return executeDup_x1(instr,inputFrame);
-		  } else if (OpCodes.dup_x2==instr.getOpCode()) {
-		    return executeDup_x2(instr,inputFrame);
-		  } else if (OpCodes.f2d==instr.getOpCode()) {
-		    return executeF2d(instr,inputFrame);
-		  } else if (OpCodes.f2i==instr.getOpCode()) {
-		    return executeF2i(instr,inputFrame);
-		  } else if (OpCodes.f2l==instr.getOpCode()) {
-		    return executeF2l(instr,inputFrame);
-		  } else if (OpCodes.fadd==instr.getOpCode()) {
-		    return executeFadd(instr,inputFrame);
-		  } else if (OpCodes.faload==instr.getOpCode()) {
-		    return executeFaload(instr,inputFrame);
-		  } else if (OpCodes.fastore==instr.getOpCode()) {
-		    return executeFastore(instr,inputFrame);
-		  } else if (OpCodes.fcmpg==instr.getOpCode()) {
-		    return executeFcmpg(instr,inputFrame);
-		  } else if (OpCodes.fcmpl==instr.getOpCode()) {
-		    return executeFcmpl(instr,inputFrame);
-		  } else if (OpCodes.fconst_0==instr.getOpCode()) {
-		    return executeFconst_0(instr,inputFrame);
-		  } else if (OpCodes.fconst_1==instr.getOpCode()) {
-		    return executeFconst_1(instr,inputFrame);
-		  } else if (OpCodes.fconst_2==instr.getOpCode()) {
-		    return executeFconst_2(instr,inputFrame);
-		  } else if (OpCodes.fdiv==instr.getOpCode()) {
-		    return executeFdiv(instr,inputFrame);
-		  } else if (OpCodes.fload==instr.getOpCode()) {
-		    return executeFload(instr,inputFrame);
-		  } else if (OpCodes.fload_0==instr.getOpCode()) {
-		    return executeFload_0(instr,inputFrame);
-		  } else if (OpCodes.fload_1==instr.getOpCode()) {
-		    return executeFload_1(instr,inputFrame);
-		  } else if (OpCodes.fload_2==instr.getOpCode()) {
-		    return executeFload_2(instr,inputFrame);
-		  } else if (OpCodes.fload_3==instr.getOpCode()) {
-		    return executeFload_3(instr,inputFrame);
-		  } else if (OpCodes.fmul==instr.getOpCode()) {
-		    return executeFmul(instr,inputFrame);
-		  } else if (OpCodes.fneg==instr.getOpCode()) {
-		    return executeFneg(instr,inputFrame);
-		  } else if (OpCodes.frem==instr.getOpCode()) {
-		    return executeFrem(instr,inputFrame);
-		  } else if (OpCodes.freturn==instr.getOpCode()) {
-		    return executeFreturn(instr,inputFrame);
-		  } else if (OpCodes.fstore==instr.getOpCode()) {
-		    return executeFstore(instr,inputFrame);
-		  } else if (OpCodes.fstore_0==instr.getOpCode()) {
-		    return executeFstore_0(instr,inputFrame);
-		  } else if (OpCodes.fstore_1==instr.getOpCode()) {
-		    return executeFstore_1(instr,inputFrame);
-		  } else if (OpCodes.fstore_2==instr.getOpCode()) {
-		    return executeFstore_2(instr,inputFrame);
-		  } else if (OpCodes.fstore_3==instr.getOpCode()) {
-		    return executeFstore_3(instr,inputFrame);
-		  } else if (OpCodes.fsub==instr.getOpCode()) {
-		    return executeFsub(instr,inputFrame);
-		  } else if (OpCodes.getfield==instr.getOpCode()) {
-		    return executeGetfield(instr,inputFrame);
-		  } else if (OpCodes.getstatic==instr.getOpCode()) {
-		    return executeGetstatic(instr,inputFrame);
-		  } else if (OpCodes.goto_==instr.getOpCode()) {
-		    return executeGoto_(instr,inputFrame);
-		  } else if (OpCodes.goto_w==instr.getOpCode()) {
-		    return executeGoto_w(instr,inputFrame);
-		  } else if (OpCodes.i2b==instr.getOpCode()) {
-		    return executeI2b(instr,inputFrame);
-		  } else if (OpCodes.i2c==instr.getOpCode()) {
-		    return executeI2c(instr,inputFrame);
-		  } else if (OpCodes.i2d==instr.getOpCode()) {
-		    return executeI2d(instr,inputFrame);
-		  } else if (OpCodes.i2f==instr.getOpCode()) {
-		    return executeI2f(instr,inputFrame);
-		  } else if (OpCodes.i2l==instr.getOpCode()) {
-		    return executeI2l(instr,inputFrame);
-		  } else if (OpCodes.i2s==instr.getOpCode()) {
-		    return executeI2s(instr,inputFrame);
-		  } else if (OpCodes.iadd==instr.getOpCode()) {
-		    return executeIadd(instr,inputFrame);
-		  } else if (OpCodes.iaload==instr.getOpCode()) {
-		    return executeIaload(instr,inputFrame);
-		  } else if (OpCodes.iand==instr.getOpCode()) {
-		    return executeIand(instr,inputFrame);
-		  } else if (OpCodes.iastore==instr.getOpCode()) {
-		    return executeIastore(instr,inputFrame);
-		  } else if (OpCodes.iconst_0==instr.getOpCode()) {
-		    return executeIconst_0(instr,inputFrame);
-		  } else if (OpCodes.iconst_1==instr.getOpCode()) {
-		    return executeIconst_1(instr,inputFrame);
-		  } else if (OpCodes.iconst_2==instr.getOpCode()) {
-		    return executeIconst_2(instr,inputFrame);
-		  } else if (OpCodes.iconst_3==instr.getOpCode()) {
-		    return executeIconst_3(instr,inputFrame);
-		  } else if (OpCodes.iconst_4==instr.getOpCode()) {
-		    return executeIconst_4(instr,inputFrame);
-		  } else if (OpCodes.iconst_5==instr.getOpCode()) {
-		    return executeIconst_5(instr,inputFrame);
-		  } else if (OpCodes.iconst_m1==instr.getOpCode()) {
-		    return executeIconst_m1(instr,inputFrame);
-		  } else if (OpCodes.idiv==instr.getOpCode()) {
-		    return executeIdiv(instr,inputFrame);
-		  } else if (OpCodes.if_acmpeq==instr.getOpCode()) {
-		    return executeIf_acmpeq(instr,inputFrame);
-		  } else if (OpCodes.if_acmpne==instr.getOpCode()) {
-		    return executeIf_acmpne(instr,inputFrame);
-		  } else if (OpCodes.if_icmpeq==instr.getOpCode()) {
-		    return executeIf_icmpeq(instr,inputFrame);
-		  } else if (OpCodes.if_icmpge==instr.getOpCode()) {
-		    return executeIf_icmpge(instr,inputFrame);
-		  } else if (OpCodes.if_icmpgt==instr.getOpCode()) {
-		    return executeIf_icmpgt(instr,inputFrame);
-		  } else if (OpCodes.if_icmple==instr.getOpCode()) {
-		    return executeIf_icmple(instr,inputFrame);
-		  } else if (OpCodes.if_icmplt==instr.getOpCode()) {
-		    return executeIf_icmplt(instr,inputFrame);
-		  } else if (OpCodes.if_icmpne==instr.getOpCode()) {
-		    return executeIf_icmpne(instr,inputFrame);
-		  } else if (OpCodes.ifeq==instr.getOpCode()) {
-		    return executeIfeq(instr,inputFrame);
-		  } else if (OpCodes.ifge==instr.getOpCode()) {
-		    return executeIfge(instr,inputFrame);
-		  } else if (OpCodes.ifgt==instr.getOpCode()) {
-		    return executeIfgt(instr,inputFrame);
-		  } else if (OpCodes.ifle==instr.getOpCode()) {
-		    return executeIfle(instr,inputFrame);
-		  } else if (OpCodes.iflt==instr.getOpCode()) {
-		    return executeIflt(instr,inputFrame);
-		  } else if (OpCodes.ifne==instr.getOpCode()) {
-		    return executeIfne(instr,inputFrame);
-		  } else if (OpCodes.ifnonnull==instr.getOpCode()) {
-		    return executeIfnonnull(instr,inputFrame);
-		  } else if (OpCodes.ifnull==instr.getOpCode()) {
-		    return executeIfnull(instr,inputFrame);
-		  } else if (OpCodes.iinc==instr.getOpCode()) {
-		    return executeIinc(instr,inputFrame);
-		  } else if (OpCodes.iload==instr.getOpCode()) {
-		    return executeIload(instr,inputFrame);
-		  } else if (OpCodes.iload_0==instr.getOpCode()) {
-		    return executeIload_0(instr,inputFrame);
-		  } else if (OpCodes.iload_1==instr.getOpCode()) {
-		    return executeIload_1(instr,inputFrame);
-		  } else if (OpCodes.iload_2==instr.getOpCode()) {
-		    return executeIload_2(instr,inputFrame);
-		  } else if (OpCodes.iload_3==instr.getOpCode()) {
-		    return executeIload_3(instr,inputFrame);
-		  } else if (OpCodes.imul==instr.getOpCode()) {
-		    return executeImul(instr,inputFrame);
-		  } else if (OpCodes.ineg==instr.getOpCode()) {
-		    return executeIneg(instr,inputFrame);
-		  } else if (OpCodes.instanceof_==instr.getOpCode()) {
-		    return executeInstanceof_(instr,inputFrame);
-		  } else if (OpCodes.invokedynamic==instr.getOpCode()) {
-		    return executeInvokedynamic(instr,inputFrame);
-		  } else if (OpCodes.invokeinterface==instr.getOpCode()) {
-		    return executeInvokeinterface(instr,inputFrame);
-		  } else if (OpCodes.invokespecial==instr.getOpCode()) {
-		    return executeInvokespecial(instr,inputFrame);
-		  } else if (OpCodes.invokestatic==instr.getOpCode()) {
-		    return executeInvokestatic(instr,inputFrame);
-		  } else if (OpCodes.invokevirtual==instr.getOpCode()) {
-		    return executeInvokevirtual(instr,inputFrame);
-		  } else if (OpCodes.ior==instr.getOpCode()) {
-		    return executeIor(instr,inputFrame);
-		  } else if (OpCodes.irem==instr.getOpCode()) {
-		    return executeIrem(instr,inputFrame);
-		  } else if (OpCodes.ireturn==instr.getOpCode()) {
-		    return executeIreturn(instr,inputFrame);
-		  } else if (OpCodes.ishl==instr.getOpCode()) {
-		    return executeIshl(instr,inputFrame);
-		  } else if (OpCodes.ishr==instr.getOpCode()) {
-		    return executeIshr(instr,inputFrame);
-		  } else if (OpCodes.istore==instr.getOpCode()) {
-		    return executeIstore(instr,inputFrame);
-		  } else if (OpCodes.istore_0==instr.getOpCode()) {
-		    return executeIstore_0(instr,inputFrame);
-		  } else if (OpCodes.istore_1==instr.getOpCode()) {
-		    return executeIstore_1(instr,inputFrame);
-		  } else if (OpCodes.istore_2==instr.getOpCode()) {
-		    return executeIstore_2(instr,inputFrame);
-		  } else if (OpCodes.istore_3==instr.getOpCode()) {
-		    return executeIstore_3(instr,inputFrame);
-		  } else if (OpCodes.isub==instr.getOpCode()) {
-		    return executeIsub(instr,inputFrame);
-		  } else if (OpCodes.iushr==instr.getOpCode()) {
-		    return executeIushr(instr,inputFrame);
-		  } else if (OpCodes.ixor==instr.getOpCode()) {
-		    return executeIxor(instr,inputFrame);
-		  } else if (OpCodes.jsr==instr.getOpCode()) {
-		    return executeJsr(instr,inputFrame);
-		  } else if (OpCodes.jsr_w==instr.getOpCode()) {
-		    return executeJsr_w(instr,inputFrame);
-		  } else if (OpCodes.l2d==instr.getOpCode()) {
-		    return executeL2d(instr,inputFrame);
-		  } else if (OpCodes.l2f==instr.getOpCode()) {
-		    return executeL2f(instr,inputFrame);
-		  } else if (OpCodes.l2i==instr.getOpCode()) {
-		    return executeL2i(instr,inputFrame);
-		  } else if (OpCodes.ladd==instr.getOpCode()) {
-		    return executeLadd(instr,inputFrame);
-		  } else if (OpCodes.laload==instr.getOpCode()) {
-		    return executeLaload(instr,inputFrame);
-		  } else if (OpCodes.land==instr.getOpCode()) {
-		    return executeLand(instr,inputFrame);
-		  } else if (OpCodes.lastore==instr.getOpCode()) {
-		    return executeLastore(instr,inputFrame);
-		  } else if (OpCodes.lcmp==instr.getOpCode()) {
-		    return executeLcmp(instr,inputFrame);
-		  } else if (OpCodes.lconst_0==instr.getOpCode()) {
-		    return executeLconst_0(instr,inputFrame);
-		  } else if (OpCodes.lconst_1==instr.getOpCode()) {
-		    return executeLconst_1(instr,inputFrame);
-		  } else if (OpCodes.ldc==instr.getOpCode()) {
-		    return executeLdc(instr,inputFrame);
-		  } else if (OpCodes.ldc2_w==instr.getOpCode()) {
-		    return executeLdc2_w(instr,inputFrame);
-		  } else if (OpCodes.ldc_w==instr.getOpCode()) {
-		    return executeLdc_w(instr,inputFrame);
-		  } else if (OpCodes.ldiv==instr.getOpCode()) {
-		    return executeLdiv(instr,inputFrame);
-		  } else if (OpCodes.lload==instr.getOpCode()) {
-		    return executeLload(instr,inputFrame);
-		  } else if (OpCodes.lload_0==instr.getOpCode()) {
-		    return executeLload_0(instr,inputFrame);
-		  } else if (OpCodes.lload_1==instr.getOpCode()) {
-		    return executeLload_1(instr,inputFrame);
-		  } else if (OpCodes.lload_2==instr.getOpCode()) {
-		    return executeLload_2(instr,inputFrame);
-		  } else if (OpCodes.lload_3==instr.getOpCode()) {
-		    return executeLload_3(instr,inputFrame);
-		  } else if (OpCodes.lmul==instr.getOpCode()) {
-		    return executeLmul(instr,inputFrame);
-		  } else if (OpCodes.lneg==instr.getOpCode()) {
-		    return executeLneg(instr,inputFrame);
-		  } else if (OpCodes.lookupswitch==instr.getOpCode()) {
-		    return executeLookupswitch(instr,inputFrame);
-		  } else if (OpCodes.lor==instr.getOpCode()) {
-		    return executeLor(instr,inputFrame);
-		  } else if (OpCodes.lrem==instr.getOpCode()) {
-		    return executeLrem(instr,inputFrame);
-		  } else if (OpCodes.lreturn==instr.getOpCode()) {
-		    return executeLreturn(instr,inputFrame);
-		  } else if (OpCodes.lshl==instr.getOpCode()) {
-		    return executeLshl(instr,inputFrame);
-		  } else if (OpCodes.lshr==instr.getOpCode()) {
-		    return executeLshr(instr,inputFrame);
-		  } else if (OpCodes.lstore==instr.getOpCode()) {
-		    return executeLstore(instr,inputFrame);
-		  } else if (OpCodes.lstore_0==instr.getOpCode()) {
-		    return executeLstore_0(instr,inputFrame);
-		  } else if (OpCodes.lstore_1==instr.getOpCode()) {
-		    return executeLstore_1(instr,inputFrame);
-		  } else if (OpCodes.lstore_2==instr.getOpCode()) {
-		    return executeLstore_2(instr,inputFrame);
-		  } else if (OpCodes.lstore_3==instr.getOpCode()) {
-		    return executeLstore_3(instr,inputFrame);
-		  } else if (OpCodes.lsub==instr.getOpCode()) {
-		    return executeLsub(instr,inputFrame);
-		  } else if (OpCodes.lushr==instr.getOpCode()) {
-		    return executeLushr(instr,inputFrame);
-		  } else if (OpCodes.lxor==instr.getOpCode()) {
-		    return executeLxor(instr,inputFrame);
-		  } else if (OpCodes.monitorenter==instr.getOpCode()) {
-		    return executeMonitorenter(instr,inputFrame);
-		  } else if (OpCodes.monitorexit==instr.getOpCode()) {
-		    return executeMonitorexit(instr,inputFrame);
-		  } else if (OpCodes.multianewarray==instr.getOpCode()) {
-		    return executeMultianewarray(instr,inputFrame);
-		  } else if (OpCodes.new_==instr.getOpCode()) {
-		    return executeNew_(instr,inputFrame);
-		  } else if (OpCodes.newarray==instr.getOpCode()) {
-		    return executeNewarray(instr,inputFrame);
-		  } else if (OpCodes.nop==instr.getOpCode()) {
-		    return executeNop(instr,inputFrame);
-		  } else if (OpCodes.pop==instr.getOpCode()) {
-		    return executePop(instr,inputFrame);
-		  } else if (OpCodes.pop2==instr.getOpCode()) {
-		    return executePop2(instr,inputFrame);
-		  } else if (OpCodes.putfield==instr.getOpCode()) {
-		    return executePutfield(instr,inputFrame);
-		  } else if (OpCodes.putstatic==instr.getOpCode()) {
-		    return executePutstatic(instr,inputFrame);
-		  } else if (OpCodes.ret==instr.getOpCode()) {
-		    return executeRet(instr,inputFrame);
-		  } else if (OpCodes.return_==instr.getOpCode()) {
-		    return executeReturn_(instr,inputFrame);
-		  } else if (OpCodes.saload==instr.getOpCode()) {
-		    return executeSaload(instr,inputFrame);
-		  } else if (OpCodes.sastore==instr.getOpCode()) {
-		    return executeSastore(instr,inputFrame);
-		  } else if (OpCodes.sipush==instr.getOpCode()) {
-		    return executeSipush(instr,inputFrame);
-		  } else if (OpCodes.swap==instr.getOpCode()) {
-		    return executeSwap(instr,inputFrame);
-		  } else if (OpCodes.tableswitch==instr.getOpCode()) {
-		    return executeTableswitch(instr,inputFrame);
-		  } else if (OpCodes.wide==instr.getOpCode()) {
-		    return executeWide(instr,inputFrame);
-		  } else {
-		    throw new IllegalArgumentException("unknown op code: "+Integer.toHexString(instr.getOpCode()));
-		  }
+		switch (instr.getOpCode()) {
+			case OpCodes.aaload:
+				return executeAaload(instr,inputFrame);
+			case OpCodes.aastore:
+				return executeAastore(instr,inputFrame);
+			case OpCodes.aconst_null:
+				return executeAconst_null(instr,inputFrame);
+			case OpCodes.aload:
+				return executeAload(instr,inputFrame);
+			case OpCodes.aload_0:
+				return executeAload_0(instr,inputFrame);
+			case OpCodes.aload_1:
+				return executeAload_1(instr,inputFrame);
+			case OpCodes.aload_2:
+				return executeAload_2(instr,inputFrame);
+			case OpCodes.aload_3:
+				return executeAload_3(instr,inputFrame);
+			case OpCodes.anewarray:
+				return executeAnewarray(instr,inputFrame);
+			case OpCodes.areturn:
+				return executeAreturn(instr,inputFrame);
+			case OpCodes.arraylength:
+				return executeArraylength(instr,inputFrame);
+			case OpCodes.astore:
+				return executeAstore(instr,inputFrame);
+			case OpCodes.astore_0:
+				return executeAstore_0(instr,inputFrame);
+			case OpCodes.astore_1:
+				return executeAstore_1(instr,inputFrame);
+			case OpCodes.astore_2:
+				return executeAstore_2(instr,inputFrame);
+			case OpCodes.astore_3:
+				return executeAstore_3(instr,inputFrame);
+			case OpCodes.athrow:
+				return executeAthrow(instr,inputFrame);
+			case OpCodes.baload:
+				return executeBaload(instr,inputFrame);
+			case OpCodes.bastore:
+				return executeBastore(instr,inputFrame);
+			case OpCodes.bipush:
+				return executeBipush(instr,inputFrame);
+			case OpCodes.caload:
+				return executeCaload(instr,inputFrame);
+			case OpCodes.castore:
+				return executeCastore(instr,inputFrame);
+			case OpCodes.checkcast:
+				return executeCheckcast(instr,inputFrame);
+			case OpCodes.d2f:
+				return executeD2f(instr,inputFrame);
+			case OpCodes.d2i:
+				return executeD2i(instr,inputFrame);
+			case OpCodes.d2l:
+				return executeD2l(instr,inputFrame);
+			case OpCodes.dadd:
+				return executeDadd(instr,inputFrame);
+			case OpCodes.daload:
+				return executeDaload(instr,inputFrame);
+			case OpCodes.dastore:
+				return executeDastore(instr,inputFrame);
+			case OpCodes.dcmpg:
+				return executeDcmpg(instr,inputFrame);
+			case OpCodes.dcmpl:
+				return executeDcmpl(instr,inputFrame);
+			case OpCodes.dconst_0:
+				return executeDconst_0(instr,inputFrame);
+			case OpCodes.dconst_1:
+				return executeDconst_1(instr,inputFrame);
+			case OpCodes.ddiv:
+				return executeDdiv(instr,inputFrame);
+			case OpCodes.dload:
+				return executeDload(instr,inputFrame);
+			case OpCodes.dload_0:
+				return executeDload_0(instr,inputFrame);
+			case OpCodes.dload_1:
+				return executeDload_1(instr,inputFrame);
+			case OpCodes.dload_2:
+				return executeDload_2(instr,inputFrame);
+			case OpCodes.dload_3:
+				return executeDload_3(instr,inputFrame);
+			case OpCodes.dmul:
+				return executeDmul(instr,inputFrame);
+			case OpCodes.dneg:
+				return executeDneg(instr,inputFrame);
+			case OpCodes.drem:
+				return executeDrem(instr,inputFrame);
+			case OpCodes.dreturn:
+				return executeDreturn(instr,inputFrame);
+			case OpCodes.dstore:
+				return executeDstore(instr,inputFrame);
+			case OpCodes.dstore_0:
+				return executeDstore_0(instr,inputFrame);
+			case OpCodes.dstore_1:
+				return executeDstore_1(instr,inputFrame);
+			case OpCodes.dstore_2:
+				return executeDstore_2(instr,inputFrame);
+			case OpCodes.dstore_3:
+				return executeDstore_3(instr,inputFrame);
+			case OpCodes.dsub:
+				return executeDsub(instr,inputFrame);
+			case OpCodes.dup:
+				return executeDup(instr,inputFrame);
+			case OpCodes.dup2:
+				return executeDup2(instr,inputFrame);
+			case OpCodes.dup2_x1:
+				return executeDup2_x1(instr,inputFrame);
+			case OpCodes.dup2_x2:
+				return executeDup2_x2(instr,inputFrame);
+			case OpCodes.dup_x1:
+				return executeDup_x1(instr,inputFrame);
+			case OpCodes.dup_x2:
+				return executeDup_x2(instr,inputFrame);
+			case OpCodes.f2d:
+				return executeF2d(instr,inputFrame);
+			case OpCodes.f2i:
+				return executeF2i(instr,inputFrame);
+			case OpCodes.f2l:
+				return executeF2l(instr,inputFrame);
+			case OpCodes.fadd:
+				return executeFadd(instr,inputFrame);
+			case OpCodes.faload:
+				return executeFaload(instr,inputFrame);
+			case OpCodes.fastore:
+				return executeFastore(instr,inputFrame);
+			case OpCodes.fcmpg:
+				return executeFcmpg(instr,inputFrame);
+			case OpCodes.fcmpl:
+				return executeFcmpl(instr,inputFrame);
+			case OpCodes.fconst_0:
+				return executeFconst_0(instr,inputFrame);
+			case OpCodes.fconst_1:
+				return executeFconst_1(instr,inputFrame);
+			case OpCodes.fconst_2:
+				return executeFconst_2(instr,inputFrame);
+			case OpCodes.fdiv:
+				return executeFdiv(instr,inputFrame);
+			case OpCodes.fload:
+				return executeFload(instr,inputFrame);
+			case OpCodes.fload_0:
+				return executeFload_0(instr,inputFrame);
+			case OpCodes.fload_1:
+				return executeFload_1(instr,inputFrame);
+			case OpCodes.fload_2:
+				return executeFload_2(instr,inputFrame);
+			case OpCodes.fload_3:
+				return executeFload_3(instr,inputFrame);
+			case OpCodes.fmul:
+				return executeFmul(instr,inputFrame);
+			case OpCodes.fneg:
+				return executeFneg(instr,inputFrame);
+			case OpCodes.frem:
+				return executeFrem(instr,inputFrame);
+			case OpCodes.freturn:
+				return executeFreturn(instr,inputFrame);
+			case OpCodes.fstore:
+				return executeFstore(instr,inputFrame);
+			case OpCodes.fstore_0:
+				return executeFstore_0(instr,inputFrame);
+			case OpCodes.fstore_1:
+				return executeFstore_1(instr,inputFrame);
+			case OpCodes.fstore_2:
+				return executeFstore_2(instr,inputFrame);
+			case OpCodes.fstore_3:
+				return executeFstore_3(instr,inputFrame);
+			case OpCodes.fsub:
+				return executeFsub(instr,inputFrame);
+			case OpCodes.getfield:
+				return executeGetfield(instr,inputFrame);
+			case OpCodes.getstatic:
+				return executeGetstatic(instr,inputFrame);
+			case OpCodes.goto_:
+				return executeGoto_(instr,inputFrame);
+			case OpCodes.goto_w:
+				return executeGoto_w(instr,inputFrame);
+			case OpCodes.i2b:
+				return executeI2b(instr,inputFrame);
+			case OpCodes.i2c:
+				return executeI2c(instr,inputFrame);
+			case OpCodes.i2d:
+				return executeI2d(instr,inputFrame);
+			case OpCodes.i2f:
+				return executeI2f(instr,inputFrame);
+			case OpCodes.i2l:
+				return executeI2l(instr,inputFrame);
+			case OpCodes.i2s:
+				return executeI2s(instr,inputFrame);
+			case OpCodes.iadd:
+				return executeIadd(instr,inputFrame);
+			case OpCodes.iaload:
+				return executeIaload(instr,inputFrame);
+			case OpCodes.iand:
+				return executeIand(instr,inputFrame);
+			case OpCodes.iastore:
+				return executeIastore(instr,inputFrame);
+			case OpCodes.iconst_0:
+				return executeIconst_0(instr,inputFrame);
+			case OpCodes.iconst_1:
+				return executeIconst_1(instr,inputFrame);
+			case OpCodes.iconst_2:
+				return executeIconst_2(instr,inputFrame);
+			case OpCodes.iconst_3:
+				return executeIconst_3(instr,inputFrame);
+			case OpCodes.iconst_4:
+				return executeIconst_4(instr,inputFrame);
+			case OpCodes.iconst_5:
+				return executeIconst_5(instr,inputFrame);
+			case OpCodes.iconst_m1:
+				return executeIconst_m1(instr,inputFrame);
+			case OpCodes.idiv:
+				return executeIdiv(instr,inputFrame);
+			case OpCodes.if_acmpeq:
+				return executeIf_acmpeq(instr,inputFrame);
+			case OpCodes.if_acmpne:
+				return executeIf_acmpne(instr,inputFrame);
+			case OpCodes.if_icmpeq:
+				return executeIf_icmpeq(instr,inputFrame);
+			case OpCodes.if_icmpge:
+				return executeIf_icmpge(instr,inputFrame);
+			case OpCodes.if_icmpgt:
+				return executeIf_icmpgt(instr,inputFrame);
+			case OpCodes.if_icmple:
+				return executeIf_icmple(instr,inputFrame);
+			case OpCodes.if_icmplt:
+				return executeIf_icmplt(instr,inputFrame);
+			case OpCodes.if_icmpne:
+				return executeIf_icmpne(instr,inputFrame);
+			case OpCodes.ifeq:
+				return executeIfeq(instr,inputFrame);
+			case OpCodes.ifge:
+				return executeIfge(instr,inputFrame);
+			case OpCodes.ifgt:
+				return executeIfgt(instr,inputFrame);
+			case OpCodes.ifle:
+				return executeIfle(instr,inputFrame);
+			case OpCodes.iflt:
+				return executeIflt(instr,inputFrame);
+			case OpCodes.ifne:
+				return executeIfne(instr,inputFrame);
+			case OpCodes.ifnonnull:
+				return executeIfnonnull(instr,inputFrame);
+			case OpCodes.ifnull:
+				return executeIfnull(instr,inputFrame);
+			case OpCodes.iinc:
+				return executeIinc(instr,inputFrame);
+			case OpCodes.iload:
+				return executeIload(instr,inputFrame);
+			case OpCodes.iload_0:
+				return executeIload_0(instr,inputFrame);
+			case OpCodes.iload_1:
+				return executeIload_1(instr,inputFrame);
+			case OpCodes.iload_2:
+				return executeIload_2(instr,inputFrame);
+			case OpCodes.iload_3:
+				return executeIload_3(instr,inputFrame);
+			case OpCodes.imul:
+				return executeImul(instr,inputFrame);
+			case OpCodes.ineg:
+				return executeIneg(instr,inputFrame);
+			case OpCodes.instanceof_:
+				return executeInstanceof_(instr,inputFrame);
+			case OpCodes.invokedynamic:
+				return executeInvokedynamic(instr,inputFrame);
+			case OpCodes.invokeinterface:
+				return executeInvokeinterface(instr,inputFrame);
+			case OpCodes.invokespecial:
+				return executeInvokespecial(instr,inputFrame);
+			case OpCodes.invokestatic:
+				return executeInvokestatic(instr,inputFrame);
+			case OpCodes.invokevirtual:
+				return executeInvokevirtual(instr,inputFrame);
+			case OpCodes.ior:
+				return executeIor(instr,inputFrame);
+			case OpCodes.irem:
+				return executeIrem(instr,inputFrame);
+			case OpCodes.ireturn:
+				return executeIreturn(instr,inputFrame);
+			case OpCodes.ishl:
+				return executeIshl(instr,inputFrame);
+			case OpCodes.ishr:
+				return executeIshr(instr,inputFrame);
+			case OpCodes.istore:
+				return executeIstore(instr,inputFrame);
+			case OpCodes.istore_0:
+				return executeIstore_0(instr,inputFrame);
+			case OpCodes.istore_1:
+				return executeIstore_1(instr,inputFrame);
+			case OpCodes.istore_2:
+				return executeIstore_2(instr,inputFrame);
+			case OpCodes.istore_3:
+				return executeIstore_3(instr,inputFrame);
+			case OpCodes.isub:
+				return executeIsub(instr,inputFrame);
+			case OpCodes.iushr:
+				return executeIushr(instr,inputFrame);
+			case OpCodes.ixor:
+				return executeIxor(instr,inputFrame);
+			case OpCodes.jsr:
+				return executeJsr(instr,inputFrame);
+			case OpCodes.jsr_w:
+				return executeJsr_w(instr,inputFrame);
+			case OpCodes.l2d:
+				return executeL2d(instr,inputFrame);
+			case OpCodes.l2f:
+				return executeL2f(instr,inputFrame);
+			case OpCodes.l2i:
+				return executeL2i(instr,inputFrame);
+			case OpCodes.ladd:
+				return executeLadd(instr,inputFrame);
+			case OpCodes.laload:
+				return executeLaload(instr,inputFrame);
+			case OpCodes.land:
+				return executeLand(instr,inputFrame);
+			case OpCodes.lastore:
+				return executeLastore(instr,inputFrame);
+			case OpCodes.lcmp:
+				return executeLcmp(instr,inputFrame);
+			case OpCodes.lconst_0:
+				return executeLconst_0(instr,inputFrame);
+			case OpCodes.lconst_1:
+				return executeLconst_1(instr,inputFrame);
+			case OpCodes.ldc:
+				return executeLdc(instr,inputFrame);
+			case OpCodes.ldc2_w:
+				return executeLdc2_w(instr,inputFrame);
+			case OpCodes.ldc_w:
+				return executeLdc_w(instr,inputFrame);
+			case OpCodes.ldiv:
+				return executeLdiv(instr,inputFrame);
+			case OpCodes.lload:
+				return executeLload(instr,inputFrame);
+			case OpCodes.lload_0:
+				return executeLload_0(instr,inputFrame);
+			case OpCodes.lload_1:
+				return executeLload_1(instr,inputFrame);
+			case OpCodes.lload_2:
+				return executeLload_2(instr,inputFrame);
+			case OpCodes.lload_3:
+				return executeLload_3(instr,inputFrame);
+			case OpCodes.lmul:
+				return executeLmul(instr,inputFrame);
+			case OpCodes.lneg:
+				return executeLneg(instr,inputFrame);
+			case OpCodes.lookupswitch:
+				return executeLookupswitch(instr,inputFrame);
+			case OpCodes.lor:
+				return executeLor(instr,inputFrame);
+			case OpCodes.lrem:
+				return executeLrem(instr,inputFrame);
+			case OpCodes.lreturn:
+				return executeLreturn(instr,inputFrame);
+			case OpCodes.lshl:
+				return executeLshl(instr,inputFrame);
+			case OpCodes.lshr:
+				return executeLshr(instr,inputFrame);
+			case OpCodes.lstore:
+				return executeLstore(instr,inputFrame);
+			case OpCodes.lstore_0:
+				return executeLstore_0(instr,inputFrame);
+			case OpCodes.lstore_1:
+				return executeLstore_1(instr,inputFrame);
+			case OpCodes.lstore_2:
+				return executeLstore_2(instr,inputFrame);
+			case OpCodes.lstore_3:
+				return executeLstore_3(instr,inputFrame);
+			case OpCodes.lsub:
+				return executeLsub(instr,inputFrame);
+			case OpCodes.lushr:
+				return executeLushr(instr,inputFrame);
+			case OpCodes.lxor:
+				return executeLxor(instr,inputFrame);
+			case OpCodes.monitorenter:
+				return executeMonitorenter(instr,inputFrame);
+			case OpCodes.monitorexit:
+				return executeMonitorexit(instr,inputFrame);
+			case OpCodes.multianewarray:
+				return executeMultianewarray(instr,inputFrame);
+			case OpCodes.new_:
+				return executeNew_(instr,inputFrame);
+			case OpCodes.newarray:
+				return executeNewarray(instr,inputFrame);
+			case OpCodes.nop:
+				return executeNop(instr,inputFrame);
+			case OpCodes.pop:
+				return executePop(instr,inputFrame);
+			case OpCodes.pop2:
+				return executePop2(instr,inputFrame);
+			case OpCodes.putfield:
+				return executePutfield(instr,inputFrame);
+			case OpCodes.putstatic:
+				return executePutstatic(instr,inputFrame);
+			case OpCodes.ret:
+				return executeRet(instr,inputFrame);
+			case OpCodes.return_:
+				return executeReturn_(instr,inputFrame);
+			case OpCodes.saload:
+				return executeSaload(instr,inputFrame);
+			case OpCodes.sastore:
+				return executeSastore(instr,inputFrame);
+			case OpCodes.sipush:
+				return executeSipush(instr,inputFrame);
+			case OpCodes.swap:
+				return executeSwap(instr,inputFrame);
+			case OpCodes.tableswitch:
+				return executeTableswitch(instr,inputFrame);
+			case OpCodes.wide:
+				return executeWide(instr,inputFrame);
+			default:
+				throw new IllegalArgumentException("unknown op code: "+Integer.toHexString(instr.getOpCode()));
+		}
 
 
 	}
@@ -2119,25 +2120,20 @@ public class Interpreter {
 		print(currentIndent,"public Frame execute(AbstractInstruction instr, Frame inputFrame) {");
 		printempty();
 		currentIndent = indent(currentIndent, false);
-		int index = 0;
+		print(currentIndent,"switch (instr.getOpCode()) {");
+		currentIndent = indent(currentIndent, false);
 		for (String name: names) {
-			if (index == 0) {
-				print(currentIndent,"if (OpCodes."+name+"==instr.getOpCode()) {");
-			} else {
-				print(currentIndent,"} else if (OpCodes."+name+"==instr.getOpCode()) {");
-			}
-			
+			print(currentIndent,"case OpCodes."+name+":");
 			currentIndent = indent(currentIndent, false);
 			String methodName = "execute"+name.substring(0, 1).toUpperCase()+name.substring(1, name.length());
-			//print(currentIndent,"inputFrame=inputFrame.copy();");
 			print(currentIndent,"return "+methodName+"(instr,inputFrame);");
 			currentIndent = indent(currentIndent, true);
-			index++;
 		}
-		print(currentIndent,"} else {");
+		print(currentIndent,"default:");
 		currentIndent = indent(currentIndent, false);
 		print(currentIndent, "throw new IllegalArgumentException(\"unknown op code: \"+Integer.toHexString(instr.getOpCode()));");
 		currentIndent = indent(currentIndent, true);
+		currentIndent = indent(currentIndent, true);
 		print(currentIndent,"}");
 		currentIndent = indent(currentIndent, true);
 		printempty();
@@ -1,6 +1,7 @@
 package org.jasm.item.instructions.verify;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,6 +66,7 @@ import org.jasm.item.instructions.verify.types.VerificationType;
 import org.jasm.parser.SourceLocation;
 import org.jasm.parser.literals.AbstractLiteral;
 import org.jasm.parser.literals.IntegerLiteral;
+import org.jasm.resolver.ClassInfoResolver;
 import org.jasm.resolver.ExternalClassInfo;
 import org.jasm.type.descriptor.MethodDescriptor;
 import org.jasm.type.descriptor.TypeDescriptor;
@@ -76,6 +78,30 @@ public class Verifier implements IClassQuery {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
+	/**
+	 * class queries report unknown classes as exceptions
+	 */
+	private static final IErrorEmitter DUMMY_EMITTER = new IErrorEmitter() {
+		
+		@Override
+		public void emitErrorOnLocation(SourceLocation sl, String message) {
+			
+			
+		}
+		
+		@Override
+		public void emitError(AbstractLiteral literal, String message) {
+			
+			
+		}
+
+		@Override
+		public void emitInternalError(Throwable e) {
+			
+			
+		}
+	};
+	
 	private Instructions parent;
 	
 	private Clazz clazz;
@@ -86,8 +112,10 @@ public class Verifier implements IClassQuery {
 	private int maxRecordedStackSize;
 	
 	
-	private List<Set<Integer>> followers = new ArrayList<Set<Integer>>();
-	private List<Set<ExceptionHandler>> exceptionHandlers = new ArrayList<Set<ExceptionHandler>>();
+	private static final int [] NO_FOLLOWERS = new int[0];
+	
+	private int [][] followers;
+	private ExceptionHandlerRanges exceptionHandlers;
 	private Set<Integer> branchTargets = new HashSet<Integer>();
 	private Set<Integer> exceptionTargets = new HashSet<Integer>();
 	private Map<Integer, Frame> stackMapFrames = new HashMap<Integer, Frame>();
@@ -102,6 +130,10 @@ public class Verifier implements IClassQuery {
 	
 	private boolean hasErrors;
 	private boolean hasUnsupportedCode;
+	private boolean stackmapPending;
+	
+	private int inferenceIterations;
+	private int interpretedInstructions;
 	
 	public void setParent(Instructions parent) {
 		this.parent = parent;
@@ -113,38 +145,6 @@ public class Verifier implements IClassQuery {
 		return parent.get(index);
 	}
 	
-	private Set<Integer> getAllFollowersFor(int index) {
-		Set<Integer> result = new HashSet<Integer>();
-		result.addAll(followers.get(index));
-		for (ExceptionHandler handler: exceptionHandlers.get(index)) {
-			result.add(handler.getHandlerInstruction().getIndex());
-		}
-		
-		return result;
-	}
-	
-	private Set<Integer> getAllReachable(int index) {
-		Set<Integer> result = new HashSet<Integer>();
-		getAllReachable(index, result);
-		return result;
-	}
-
-	
-	private void getAllReachable(int index, Set<Integer> result) {
-		List<Integer> unvisited = new ArrayList<Integer>();
-		unvisited.add(index);
-		while (unvisited.size() > 0) {
-			Integer i = unvisited.remove((int)0);
-			result.add(i);
-			for (Integer f: getAllFollowersFor(i)) {
-				if (!unvisited.contains(f) && !result.contains(f)) {
-					unvisited.add(f);
-				}
-			}
-		}
-		
-	}
-	
 	public void verifyStage1() {
 		
 		this.clazz = parent.getAncestor(Clazz.class);
@@ -304,8 +304,7 @@ public class Verifier implements IClassQuery {
 				currentInstructionIndex = i;
 				AbstractInstruction instr = parent.get(currentInstructionIndex);
 				nextFrame = interpeter.execute(instr, currentFrame).copy();
-				Set<Integer> myFollowers = followers.get(i);
-				for (Integer f: myFollowers) {
+				for (int f: followers[i]) {
 					if (stackMapFrames.containsKey(f)) {
 						Frame stackmapFrame = stackMapFrames.get(f);
 						if (!stackmapFrame.isAssignableFrom(nextFrame)) {
@@ -314,7 +313,7 @@ public class Verifier implements IClassQuery {
 					}
 				}
 				
-				for (ExceptionHandler handler: exceptionHandlers.get(i)) {
+				for (ExceptionHandler handler: exceptionHandlers.getHandlers(i)) {
 					ClassInfo exception = handler.getCatchType();
 					ObjectValueType exceptionType;
 					if (exception != null) {
@@ -341,124 +340,130 @@ public class Verifier implements IClassQuery {
 			log.debug("type inferencing for: "+method.getName());
 		}
 		try {
-			Frame firstFrame = initialFrame.copy();
-			inferencedFrames.put(0, firstFrame);
-			Set<Integer> changed = new HashSet<Integer>();
-			changed.add(0);
-			while (!changed.isEmpty()) {
-				if (log.isDebugEnabled()) {
-					log.debug("changed = "+changed);
-				}
-				currentInstructionIndex = changed.iterator().next();
-				
-				AbstractInstruction instr = parent.get(currentInstructionIndex);
-				if (log.isDebugEnabled()) {
-					log.debug("Handling instruction at "+instr.getIndex()+":"+instr.getOffsetInCode());
-				}
-				changed.remove(currentInstructionIndex);
-				Frame currentFrame = inferencedFrames.get(currentInstructionIndex);
+			ControlFlowGraph cfg = createControlFlowGraph();
+			Frame [] blockFrames = new Frame[cfg.getBlockCount()];
+			blockFrames[0] = initialFrame.copy();
+			//the blocks are numbered in reverse postorder, so the lowest one is handled first
+			BitSet changed = new BitSet(cfg.getBlockCount());
+			changed.set(0);
+			int iterations = 0;
+			for (int block = changed.nextSetBit(0); block>=0; block = changed.nextSetBit(0)) {
+				changed.clear(block);
+				iterations++;
 				if (log.isDebugEnabled()) {
-					log.debug("current frame: "+currentFrame);
+					log.debug("Handling block "+cfg.getStart(block)+"-"+cfg.getEnd(block)+" with frame "+blockFrames[block]);
 				}
-				Set<Integer> myFollowers = followers.get(currentInstructionIndex);
-				Set<ExceptionHandler> myExceptionHandlers = exceptionHandlers.get(currentInstructionIndex);
-				Frame nextFrame = interpeter.execute(instr, currentFrame.copy());
-				for (int f: myFollowers) {
-					if (log.isDebugEnabled()) {
-						AbstractInstruction fInstr = parent.get(f);
-						log.debug("Handling follower at instruction at "+fInstr.getIndex()+":"+fInstr.getOffsetInCode());
-					}
-					Frame followerFrame = inferencedFrames.get(f);
-					if (followerFrame == null) {
-						changed.add(f);
-						Frame fr = nextFrame.copy();
-						inferencedFrames.put(f, fr);
-						if (log.isDebugEnabled()) {
-							log.debug("Set frame "+fr);
-						}
-					} else if (followerFrame.equals(nextFrame)) {
-						if (log.isDebugEnabled()) {
-							log.debug(followerFrame+" EQUALS "+nextFrame);
-						}
-					} else {
-						Frame fr = nextFrame.merge(followerFrame);
-						if (log.isDebugEnabled()) {
-							log.debug("Merge "+followerFrame+" with "+nextFrame+"-->"+fr);
-						}
-						if (!fr.equals(followerFrame)) {
-							changed.add(f);
-							inferencedFrames.put(f, fr);
+				Frame nextFrame = blockFrames[block].copy();
+				for (int i=cfg.getStart(block);i<=cfg.getEnd(block); i++) {
+					currentInstructionIndex = i;
+					AbstractInstruction instr = parent.get(i);
+					nextFrame = interpeter.execute(instr, nextFrame);
+					interpretedInstructions++;
+					for (ExceptionHandler h: exceptionHandlers.getHandlers(i)) {
+						ClassInfo exception = h.getCatchType();
+						ObjectValueType exceptionType;
+						if (exception != null) {
+							exceptionType = new ObjectValueType("L"+exception.getClassName()+";", this);
 						} else {
-							if (log.isDebugEnabled()) {
-								log.debug(followerFrame+" EQUALS "+fr);
-							}
-						}
-					}
-				}
-				
-				for (ExceptionHandler h: myExceptionHandlers) {
-					ClassInfo exception = h.getCatchType();
-					ObjectValueType exceptionType;
-					if (exception != null) {
-						exceptionType = new ObjectValueType("L"+exception.getClassName()+";", this);
-					} else {
-						exceptionType = VerificationType.THROWABLE.create(this);
-					}
-					if (log.isDebugEnabled()) {
-						log.debug("Handling exception handler at "+h.getHandlerInstruction().getIndex()+":"+h.getHandlerInstruction().getOffsetInCode());
-					}
-					int index = h.getHandlerInstruction().getIndex();
-					Frame followerFrame = inferencedFrames.get(index);
-					Frame exceptionFrame = nextFrame.copy().throwException(exceptionType);
-					if (log.isDebugEnabled()) {
-						log.debug("Exception frame:  "+exceptionFrame);
-					}
-					if (followerFrame == null) {
-						changed.add(index);
-						inferencedFrames.put(index, exceptionFrame);
-						if (log.isDebugEnabled()) {
-							log.debug("Set Frame to:  "+exceptionFrame);
-						}
-					} else if (followerFrame.equals(exceptionFrame)) {
-						if (log.isDebugEnabled()) {
-							log.debug(followerFrame+" EQUALS "+exceptionFrame);
-						}
-					} else {
-						Frame fr = exceptionFrame.merge(followerFrame);
-						if (log.isDebugEnabled()) {
-							log.debug("Merge "+exceptionFrame+" with "+followerFrame+"-->"+fr);
+							exceptionType = VerificationType.THROWABLE.create(this);
 						}
-						if (!fr.equals(followerFrame)) {
-							changed.add(index);
-							inferencedFrames.put(index, fr);
-						} else {
-							if (log.isDebugEnabled()) {
-								log.debug(followerFrame+" EQUALS "+fr);
-							}
+						int target = cfg.getBlock(h.getHandlerInstruction().getIndex());
+						if (mergeInto(blockFrames, target, nextFrame.copy().throwException(exceptionType))) {
+							changed.set(target);
 						}
 					}
-					if (changed.contains(currentInstructionIndex)) {
-						if (log.isDebugEnabled()) {
-							log.debug("Loop at "+instr.getIndex()+":"+instr.getOffsetInCode());
-						}
+				}
+				for (int f: followers[cfg.getEnd(block)]) {
+					int target = cfg.getBlock(f);
+					if (mergeInto(blockFrames, target, nextFrame.copy())) {
+						changed.set(target);
 					}
 				}
 			}
+			inferenceIterations = iterations;
+			if (log.isDebugEnabled()) {
+				log.debug("type inferencing for "+method.getName()+" converged after "+iterations+" block iterations");
+			}
 			
-			if ((inferencedFrames.size() != parent.getSize())) {
-				throw new IllegalStateException(inferencedFrames.size()+"!="+parent.getSize());
+			for (int block=0;block<blockFrames.length; block++) {
+				if (blockFrames[block] == null) {
+					throw new IllegalStateException("no frame inferenced for instruction "+cfg.getStart(block));
+				}
+				inferencedFrames.put(cfg.getStart(block), blockFrames[block]);
 			}
 			
 			double version = clazz.getDecimalVersion().doubleValue();
-			if (generateStackmap() && version>=50) {
-				generateStackMap();
-			}
+			stackmapPending = generateStackmap() && version>=50;
 			
 		} catch (VerifyException e) {
 			throw new TypeInferencingException(e);
 		}
 	}
 	
+	/**
+	 * the basic blocks of the method, available after {@link #verifyStage1()}
+	 */
+	ControlFlowGraph createControlFlowGraph() {
+		return new ControlFlowGraph(parent.getSize(), followers, exceptionHandlers, branchTargets);
+	}
+	
+	/**
+	 * @return the number of blocks handled by the type inferencing
+	 */
+	int getInferenceIterations() {
+		return inferenceIterations;
+	}
+	
+	/**
+	 * @return the number of instructions executed by the type inferencing
+	 */
+	int getInterpretedInstructions() {
+		return interpretedInstructions;
+	}
+	
+	/**
+	 * generates the stack map inferenced by {@link #verify()}. It adds entries to the constant pool, 
+	 * so methods verified in parallel do this one after another in method order.
+	 */
+	public void generatePendingStackMap() {
+		if (!stackmapPending) {
+			return;
+		}
+		stackmapPending = false;
+		try {
+			generateStackMap();
+		} catch (VerifyException e) {
+			emitCodeVerifyError(e);
+		} catch (RuntimeException e) {
+			emitRuntimeError(e);
+		}
+	}
+	
+	/**
+	 * merges the frame into the entry frame of the block
+	 * @return true if the entry frame has changed
+	 */
+	private boolean mergeInto(Frame [] blockFrames, int block, Frame frame) {
+		Frame blockFrame = blockFrames[block];
+		if (blockFrame == null) {
+			blockFrames[block] = frame;
+			return true;
+		} else if (blockFrame.equals(frame)) {
+			return false;
+		} else {
+			Frame merged = frame.merge(blockFrame);
+			if (log.isDebugEnabled()) {
+				log.debug("Merge "+blockFrame+" with "+frame+"-->"+merged);
+			}
+			if (merged.equals(blockFrame)) {
+				return false;
+			} else {
+				blockFrames[block] = merged;
+				return true;
+			}
+		}
+	}
+	
 	private void generateStackMap() {
 		StackMapAttributeContent content = getStackmapCreatingIfNecessary();
 		content.setSourceLocation(null);
@@ -699,101 +704,121 @@ public class Verifier implements IClassQuery {
 	
 	
 	private void calculateFollowers() {
-		followers = new ArrayList<Set<Integer>>();
-		exceptionHandlers = new ArrayList<Set<ExceptionHandler>>();
+		int size = parent.getSize();
+		followers = new int[size][];
+		BitSet switchTargets = new BitSet(size);
 		
 		//Normal followers
-		for (int i=0;i<parent.getSize(); i++) {
+		for (int i=0;i<size; i++) {
 			AbstractInstruction instr = parent.get(i);
-			Set<Integer> instrFollowers = new HashSet<Integer>();
-			followers.add(instrFollowers);
-			Set<ExceptionHandler> instrHandlers = new HashSet<ExceptionHandler>();
-			exceptionHandlers.add(instrHandlers);
+			int [] instrFollowers = NO_FOLLOWERS;
 			if (instr instanceof BranchInstruction) {
 				BranchInstruction bi = (BranchInstruction)instr;
+				int target;
 				if (instr.getOpCode() == OpCodes.jsr || instr.getOpCode() == OpCodes.jsr_w) {
 					throw new IllegalStateException("Bad or unsupported code");
 				} else {
-					instrFollowers.add(bi.getTargetInst().getIndex());
-					branchTargets.add(bi.getTargetInst().getIndex());
+					target = bi.getTargetInst().getIndex();
+					instrFollowers = new int[]{target};
+					branchTargets.add(target);
 				}
 				if (instr.getOpCode() == OpCodes.goto_ || instr.getOpCode() == OpCodes.goto_w) {
 					
 				} else {
 					int nextIndex = instr.getIndex()+1;
-					if (nextIndex>=parent.getSize()) {
+					if (nextIndex>=size) {
 						emitStage1Error(instr, "inexpected code end");
-					} else {
-						instrFollowers.add(nextIndex);
+					} else if (nextIndex != target) {
+						instrFollowers = new int[]{target, nextIndex};
 					}
 				}
 			} else if (instr instanceof AbstractSwitchInstruction) {
 				AbstractSwitchInstruction ai = (AbstractSwitchInstruction)instr;
-				instrFollowers.add(ai.getDefaultTarget().getIndex());
-				branchTargets.add(ai.getDefaultTarget().getIndex());
+				switchTargets.set(ai.getDefaultTarget().getIndex());
 				for (AbstractInstruction instr1: ai.getTargets()) {
-					instrFollowers.add(instr1.getIndex());
-					branchTargets.add(instr1.getIndex());
+					switchTargets.set(instr1.getIndex());
+				}
+				instrFollowers = new int[switchTargets.cardinality()];
+				int j = 0;
+				for (int t = switchTargets.nextSetBit(0); t>=0; t = switchTargets.nextSetBit(t+1)) {
+					instrFollowers[j++] = t;
+					branchTargets.add(t);
+				}
+				for (int t: instrFollowers) {
+					switchTargets.clear(t);
 				}
 			} else if (instr instanceof ArgumentLessInstruction) {
 				ArgumentLessInstruction ai = (ArgumentLessInstruction)instr;
 				if (ai.isReturn() || ai.getOpCode() == OpCodes.athrow) {
 					//Returns and throws don't have followers
 				} else {
-					int nextIndex = instr.getIndex()+1;
-					if (nextIndex>=parent.getSize()) {
-						emitStage1Error(instr, "inexpected code end");
-					} else {
-						instrFollowers.add(nextIndex);
-					}
-					
+					instrFollowers = createNextFollower(instr);
 				}
 			} else if (instr instanceof LocalVariableInstruction ) {
 				LocalVariableInstruction li = (LocalVariableInstruction)instr;
 				if (li.getOpCode() == OpCodes.ret) {
 					throw new IllegalStateException("Bad or unsupported code");
 				} else {
-					int nextIndex = instr.getIndex()+1;
-					if (nextIndex>=parent.getSize()) {
-						emitStage1Error(instr, "inexpected code end");
-					} else {
-						instrFollowers.add(nextIndex);
-					}
+					instrFollowers = createNextFollower(instr);
 				}
 			} else {
-				int nextIndex = instr.getIndex()+1;
-				if (nextIndex>=parent.getSize()) {
-					emitStage1Error(instr, "inexpected code end");
-				} else {
-					instrFollowers.add(nextIndex);
-				}
+				instrFollowers = createNextFollower(instr);
 			}
+			followers[i] = instrFollowers;
 		}
 		
 		//Exception handlers
 		ExceptionHandlerTable table = code.getExceptionTable();
+		exceptionHandlers = new ExceptionHandlerRanges(table, parent.getSize());
 		for (int i=0;i<table.getSize(); i++) {
-			ExceptionHandler handler = table.get(i);
-			exceptionTargets.add(handler.getHandlerInstruction().getIndex());
-			for (int j=handler.getStartInstruction().getIndex(); j<=handler.getEndInstruction().getIndex();  j++) {
-				exceptionHandlers.get(j).add(handler);
-			}
+			exceptionTargets.add(table.get(i).getHandlerInstruction().getIndex());
+		}
+	}
+	
+	private int [] createNextFollower(AbstractInstruction instr) {
+		int nextIndex = instr.getIndex()+1;
+		if (nextIndex>=parent.getSize()) {
+			emitStage1Error(instr, "inexpected code end");
+			return NO_FOLLOWERS;
+		} else {
+			return new int[]{nextIndex};
 		}
 	}
 	
+	/**
+	 * marks everything reachable from the first instruction and reports the first instruction 
+	 * of every dead region, a region being everything reachable from its first instruction, which isn't reachable otherwise
+	 */
 	private void checkAllReachable() {
-		Set<Integer> reachables = getAllReachable(0);
-		List<Integer> unreachables = new ArrayList<Integer>();
-		for (int i=0;i<parent.getSize(); i++) {
-			if (!reachables.contains(i)) {
-				unreachables.add(i);
+		int size = parent.getSize();
+		BitSet reachables = new BitSet(size);
+		int [] worklist = new int[size];
+		markReachable(0, reachables, worklist);
+		for (int i = reachables.nextClearBit(0); i<size; i = reachables.nextClearBit(i+1)) {
+			emitStage1Error(getInstructionAt(i), "dead code");
+			markReachable(i, reachables, worklist);
+		}
+	}
+	
+	private void markReachable(int index, BitSet reachables, int [] worklist) {
+		int top = 0;
+		worklist[top++] = index;
+		reachables.set(index);
+		while (top > 0) {
+			int i = worklist[--top];
+			for (int f: followers[i]) {
+				if (!reachables.get(f)) {
+					reachables.set(f);
+					worklist[top++] = f;
+				}
+			}
+			for (ExceptionHandler handler: exceptionHandlers.getHandlers(i)) {
+				int f = handler.getHandlerInstruction().getIndex();
+				if (!reachables.get(f)) {
+					reachables.set(f);
+					worklist[top++] = f;
+				}
 			}
-		}
-		
-		while (unreachables.size()>0) {
-			emitStage1Error(getInstructionAt(unreachables.get(0)), "dead code");
-			reachables = getAllReachable(unreachables.get(0));
-			unreachables.removeAll(reachables);
 		}
 	}
 	
@@ -862,8 +887,14 @@ public class Verifier implements IClassQuery {
 
 	@Override
 	public boolean isInterface(String className) {
-		ExternalClassInfo classInfo = getClass(className);
-		return classInfo.getModifier().isInterface();
+		ClassInfoResolver resolver = clazz.getResolver();
+		Boolean result = resolver.getInterface(className);
+		if (result == null) {
+			ExternalClassInfo classInfo = getClass(className);
+			result = classInfo.getModifier().isInterface();
+			resolver.putInterface(className, result);
+		}
+		return result;
 	}
 	
 	//Class Query
@@ -884,37 +915,22 @@ public class Verifier implements IClassQuery {
 		} else if (classTo.equals("java/lang/Object") || classFrom.equals("java/lang/Object")) {
 			return "java/lang/Object";
 		} else {
-			
-			while (!isAssignable(classTo, classFrom)) {
-				ExternalClassInfo cl = getClass(classTo);
-				classTo = cl.getSuperName();
+			ClassInfoResolver resolver = clazz.getResolver();
+			String result = resolver.getMerge(classTo, classFrom);
+			if (result == null) {
+				result = classTo;
+				while (!isAssignable(result, classFrom)) {
+					ExternalClassInfo cl = getClass(result);
+					result = cl.getSuperName();
+				}
+				resolver.putMerge(classTo, classFrom, result);
 			}
-			return classTo;
+			return result;
 		}
 	}
 	
 	private ExternalClassInfo getClass(String name) {
-		IErrorEmitter dummyEmitter = new IErrorEmitter() {
-			
-			@Override
-			public void emitErrorOnLocation(SourceLocation sl, String message) {
-				
-				
-			}
-			
-			@Override
-			public void emitError(AbstractLiteral literal, String message) {
-				
-				
-			}
-
-			@Override
-			public void emitInternalError(Throwable e) {
-				
-				
-			}
-		};
-		ExternalClassInfo result = clazz.checkAndLoadClassInfo(dummyEmitter, null, name, false);
+		ExternalClassInfo result = clazz.checkAndLoadClassInfo(DUMMY_EMITTER, null, name, false);
 		if (result == null) {
 			throw new UnknownClassException(-1, name);
 		}
@@ -2,7 +2,7 @@ package org.jasm.loader;
 
 import java.io.InputStream;
 
-import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
 import org.jasm.item.clazz.Clazz;
 import org.jasm.parser.AssemblerParser;
 import org.jasm.parser.SimpleParserErrorListener;
@@ -89,10 +89,9 @@ public class AssemblerClassLoader extends ClassLoader {
 			parser.flushErrors();;
 			throw new AssemblerClassLoaderException("invalid assembler file", rName);
 		}
-		byte [] data = new byte[clazz.getLength()];
-		ByteArrayByteBuffer bbuf = new ByteArrayByteBuffer(data);
+		GrowableByteBuffer bbuf = new GrowableByteBuffer();
 		clazz.write(bbuf, 0);
-		return data;
+		return bbuf.toByteArray();
 	}
 
 	public void setParentFirst(boolean parentFirst) {
@@ -0,0 +1,79 @@
+package org.jasm.map;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @author ac
+ * Concurrent pool for the strings (class names, descriptors, member names) which occur
+ * in many classes. The strings are interned only if a shared pool has been set, which the assembler 
+ * does if jasm.stringpool is true. The saved heap is estimated from the lengths of the strings.
+ */
+public class StringPool {
+	
+	private static volatile StringPool shared = null;
+	
+	private ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<String, String>();
+	private AtomicLong deduplicatedStrings = new AtomicLong();
+	private AtomicLong deduplicatedBytes = new AtomicLong();
+	
+	public static StringPool getShared() {
+		return shared;
+	}
+	
+	public static void setShared(StringPool pool) {
+		shared = pool;
+	}
+	
+	/**
+	 * 
+	 * @return the pooled instance of value if there is a shared pool, otherwise value itself
+	 */
+	public static String intern(String value) {
+		StringPool pool = shared;
+		if (pool == null || value == null) {
+			return value;
+		} else {
+			return pool.get(value);
+		}
+	}
+	
+	public String get(String value) {
+		String existing = strings.putIfAbsent(value, value);
+		if (existing == null) {
+			return value;
+		}
+		if (existing != value) {
+			deduplicatedStrings.incrementAndGet();
+			deduplicatedBytes.addAndGet(estimateSize(value));
+		}
+		return existing;
+	}
+	
+	public int getSize() {
+		return strings.size();
+	}
+	
+	public long getDeduplicatedStrings() {
+		return deduplicatedStrings.get();
+	}
+	
+	/**
+	 * 
+	 * @return the estimated number of bytes of the dropped duplicates
+	 */
+	public long getDeduplicatedBytes() {
+		return deduplicatedBytes.get();
+	}
+	
+	public void clear() {
+		strings.clear();
+	}
+	
+	//String object and char array headers plus the chars, aligned to 8 bytes
+	private static long estimateSize(String value) {
+		return 24+((16+2L*value.length()+7)/8)*8;
+	}
+	
+}
@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BaseErrorListener;
@@ -339,13 +341,18 @@ public class AssemblerParser  extends JavaAssemblerBaseListener {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
-	private List<IParserErrorListener> errorListeners = new ArrayList<IParserErrorListener>();
+	private List<IParserErrorListener> errorListeners = new CopyOnWriteArrayList<IParserErrorListener>();
 	
 	private Clazz result = null;
 	
 	Stack<Object> stack = new Stack<>();
 	
-	private int errorCounter = 0;
+	private AtomicInteger errorCounter = new AtomicInteger();
+	
+	/**
+	 * errors of threads verifying in parallel, which are reported later in a fixed order
+	 */
+	private ThreadLocal<List<ErrorMessage>> bufferedErrors = new ThreadLocal<List<ErrorMessage>>();
 	
 	private IMacroFactory macroFactory;
 	
@@ -362,21 +369,52 @@ public class AssemblerParser  extends JavaAssemblerBaseListener {
 	}
 
 	public void emitError(int line, int charPos, String msg) {
-		errorCounter++;
-		for (IParserErrorListener listener: errorListeners) {
-			listener.error(line, charPos, msg);
+		List<ErrorMessage> buffer = bufferedErrors.get();
+		if (buffer != null) {
+			buffer.add(new ErrorMessage(line, charPos, msg));
+		} else {
+			errorCounter.incrementAndGet();
+			for (IParserErrorListener listener: errorListeners) {
+				listener.error(line, charPos, msg);
+			}
 		}
 	}
 	
 	public void emitInternalError(AbstractByteCodeItem source, Throwable e) {
-		errorCounter++;
 		SourceLocation loc = source.getNextSourceLocation();
-		for (IParserErrorListener listener: errorListeners) {
-			listener.error(loc.getLine(), loc.getCharPosition(), e.getClass().getName()+"->"+e.getMessage());
-		}
+		emitError(loc.getLine(), loc.getCharPosition(), e.getClass().getName()+"->"+e.getMessage());
 		log.error("Got internal error at "+loc.getLine()+"/"+loc.getCharPosition()+" in "+source.getClass().getName(),e);
 	}
 	
+	/**
+	 * the errors of the current thread are kept back from the listeners and the error counter until they are passed to {@link #emitErrors(List)}
+	 */
+	public void startBufferingErrors() {
+		bufferedErrors.set(new ArrayList<ErrorMessage>());
+	}
+	
+	/**
+	 * 
+	 * @return the errors of the current thread since {@link #startBufferingErrors()}, to be passed to {@link #emitErrors(List)}
+	 */
+	public List<ErrorMessage> stopBufferingErrors() {
+		List<ErrorMessage> result = bufferedErrors.get();
+		bufferedErrors.remove();
+		return result;
+	}
+	
+	/**
+	 * counts the buffered errors and passes them to the listeners
+	 */
+	public void emitErrors(List<ErrorMessage> errors) {
+		for (ErrorMessage error: errors) {
+			errorCounter.incrementAndGet();
+			for (IParserErrorListener listener: errorListeners) {
+				listener.error(error.getLineNumber(), error.getCharPosition(), error.getMessage());
+			}
+		}
+	}
+	
 	public void flushErrors() {
 		for (IParserErrorListener listener: errorListeners) {
 			listener.flush();
@@ -384,7 +422,7 @@ public class AssemblerParser  extends JavaAssemblerBaseListener {
 	}
 	
 	public int getErrorCounter() {
-		return errorCounter;
+		return errorCounter.get();
 	}
 
 	public Clazz parse(InputStream inp) {
@@ -411,7 +449,7 @@ public class AssemblerParser  extends JavaAssemblerBaseListener {
 	private  Clazz doParse(ANTLRInputStream input) {
 		
 		result = null;
-		errorCounter = 0;
+		errorCounter.set(0);
 		for (IParserErrorListener listener: errorListeners) {
 			listener.clear();
 		}
@@ -439,14 +477,14 @@ public class AssemblerParser  extends JavaAssemblerBaseListener {
 		
 		//log.debug("tree: "+tree.toStringTree());
 		
-		if (errorCounter == 0) {
+		if (errorCounter.get() == 0) {
 			//Walk tree an create class
 			ParseTreeWalker walker = new ParseTreeWalker();
 			walker.walk(this, tree);
-			if (errorCounter == 0) {
+			if (errorCounter.get() == 0) {
 				Clazz clazz = result;
 				clazz.resolve();
-				if (errorCounter == 0) {
+				if (errorCounter.get() == 0) {
 					clazz.updateMetadata();
 				}
 				
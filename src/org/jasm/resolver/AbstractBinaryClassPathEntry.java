@@ -1,7 +1,7 @@
 package org.jasm.resolver;
 
 import org.jasm.bytebuffer.ByteArrayByteBuffer;
-import org.jasm.item.clazz.Clazz;
+import org.jasm.bytebuffer.IByteBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,16 +13,12 @@ public abstract class AbstractBinaryClassPathEntry implements IClassPathEntry {
 	public ExternalClassInfo findClass(String className) {
 		
 		try {
-			byte [] data = findBytes(className+".class");
-			if (data == null) {
+			IByteBuffer bbuf = findBuffer(className+".class");
+			if (bbuf == null) {
 				return null;
 			}
-			ByteArrayByteBuffer bbuf = new ByteArrayByteBuffer(data);
-			Clazz clazz = new Clazz();
-			clazz.read(bbuf, 0L);
-			clazz.resolve();
-			
-			return ExternalClassInfo.createFromClass(clazz);
+			//the class info needs only the header and the member declarations
+			return ClassHeaderReader.read(bbuf);
 		} catch (Throwable e) {
 			log.warn("Error reading from "+getName()+", marked invalid, error message: ",e );
 			invalid = true;
@@ -30,6 +26,23 @@ public abstract class AbstractBinaryClassPathEntry implements IClassPathEntry {
 		}
 	}
 	
+	/**
+	 * Returns the resource as byte buffer, subclasses able to 
+	 * access the data without copying (e.g. by mapping it) should override it
+	 */
+	protected IByteBuffer findBuffer(String resourceName) {
+		byte [] data = findBytes(resourceName);
+		if (data == null) {
+			return null;
+		}
+		return new ByteArrayByteBuffer(data);
+	}
+	
+	protected static String getPackage(String resourceName) {
+		int index = resourceName.lastIndexOf('/');
+		return (index<0)?"":resourceName.substring(0, index);
+	}
+	
 	protected abstract String getName();
 
 	public boolean isInvalid() {
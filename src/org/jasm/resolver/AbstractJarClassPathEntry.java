@@ -2,43 +2,136 @@ package org.jasm.resolver;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.zip.ZipException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
-import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.MappedZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public abstract class AbstractJarClassPathEntry extends AbstractBinaryClassPathEntry {
+public abstract class AbstractJarClassPathEntry extends AbstractBinaryClassPathEntry implements IPackageListingClassPathEntry {
 	
-	private JarFile jar;
+	private Logger log = LoggerFactory.getLogger(this.getClass());
+	
+	private boolean mappingFailed = false;
+	private File cacheDirectory = null;
+	private volatile PersistentClassInfoCache persistentCache = null;
+	private volatile boolean persistentCacheFailed = false;
+	
+	/**
+	 * if set, the class infos of the jar are stored in and loaded from this directory
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
 	
+	@Override
+	public ExternalClassInfo findClass(String className) {
+		PersistentClassInfoCache cache = getPersistentCache();
+		if (cache != null && !cache.isUnreadable(className)) {
+			return cache.findClass(className);
+		}
+		return super.findClass(className);
+	}
+	
+	/**
+	 * stored and deflated entries are read from the mapped jar, 
+	 * the others through the shared JarFile
+	 */
 	@Override
 	public byte[] findBytes(String resourceName) {
-		try {
-			
-			createJarFile();
-			JarEntry entry = jar.getJarEntry(resourceName);
-			if (entry!=null && !entry.isDirectory()) {
-				InputStream data = jar.getInputStream(entry);
-				
-				byte[] result = IOUtils.toByteArray(data);
-				data.close();
+		MappedZipFile mapped = getMappedJar();
+		if (mapped != null) {
+			byte [] result = mapped.readEntry(resourceName);
+			if (result != null || !mapped.contains(resourceName)) {
 				return result;
-			} else {
-				return null;
 			}
+		}
+		try {
+			return JarFileRegistry.readEntry(getJarFile(), resourceName);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * stored entries are read directly from the mapped jar, 
+	 * compressed ones are inflated into a byte array
+	 */
+	@Override
+	protected IByteBuffer findBuffer(String resourceName) {
+		MappedZipFile mapped = getMappedJar();
+		if (mapped != null) {
+			IByteBuffer result = mapped.getStoredEntry(resourceName);
+			if (result != null) {
+				return result;
+			}
+		}
+		return super.findBuffer(resourceName);
+	}
+
+	@Override
+	public Set<String> getPackages() {
+		try {
+			Set<String> result = new HashSet<String>();
+			for (String name: JarFileRegistry.getEntryNames(getJarFile())) {
+				result.add(getPackage(name));
+			}
+			return result;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * the jar is shared with the other entries for the same file and its handle isn't kept, because
+	 * the registry may close it
+	 */
 	public abstract File getJarFile(); 
 	
-	private synchronized void createJarFile() throws ZipException, IOException {
-		if (jar == null) {
-			jar = new JarFile(getJarFile());
+	/**
+	 * opened by the first lookup, the following lookups don't lock
+	 */
+	private PersistentClassInfoCache getPersistentCache() {
+		PersistentClassInfoCache result = persistentCache;
+		if (result != null || cacheDirectory == null || persistentCacheFailed) {
+			return result;
+		}
+		synchronized (this) {
+			if (persistentCache != null || persistentCacheFailed) {
+				return persistentCache;
+			}
+			try {
+				List<String> classResources = new ArrayList<String>();
+				for (String name: JarFileRegistry.getEntryNames(getJarFile())) {
+					if (name.endsWith(".class")) {
+						classResources.add(name);
+					}
+				}
+				result = PersistentClassInfoCache.open(cacheDirectory, getJarFile(), this, classResources);
+			} catch (IOException | RuntimeException e) {
+				log.warn("Couldn't use the class info cache for "+getName()+": "+e.getMessage());
+			}
+			if (result == null) {
+				persistentCacheFailed = true;
+			}
+			persistentCache = result;
+			return result;
+		}
+	}
+	
+	private MappedZipFile getMappedJar() {
+		if (mappingFailed) {
+			return null;
+		}
+		try {
+			return JarFileRegistry.getMappedJar(getJarFile());
+		} catch (IOException e) {
+			mappingFailed = true;
+			return null;
 		}
 	}
 	
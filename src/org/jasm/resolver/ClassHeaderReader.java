@@ -0,0 +1,159 @@
+package org.jasm.resolver;
+
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.item.modifier.ClassModifier;
+import org.jasm.item.modifier.FieldModifier;
+import org.jasm.item.modifier.MethodModifier;
+import org.jasm.map.StringPool;
+import org.jasm.type.descriptor.MethodDescriptor;
+import org.jasm.type.descriptor.TypeDescriptor;
+
+/**
+ *
+ * @author ac
+ * Reads only the parts of a class file which are needed for an {@link ExternalClassInfo}:
+ * the constant pool offsets, the class header and the names, descriptors and modifiers of the members.
+ * Attributes are skipped by their lengths and only the referenced utf8 constants are decoded,
+ * so this is much cheaper than reading and resolving a {@link org.jasm.item.clazz.Clazz}.
+ */
+public class ClassHeaderReader {
+	
+	private static final long MAGIC = 0xCAFEBABEL;
+	
+	private IByteBuffer source;
+	private long [] constantOffsets;
+	private short [] constantTags;
+	
+	private ClassHeaderReader(IByteBuffer source) {
+		this.source = source;
+	}
+	
+	public static ExternalClassInfo read(IByteBuffer source) {
+		return new ClassHeaderReader(source).doRead();
+	}
+	
+	private ExternalClassInfo doRead() {
+		if (source.readUnsignedInt(0) != MAGIC) {
+			throw new IllegalArgumentException("not a class file, wrong magic number");
+		}
+		long offset = readConstantPool(8);
+		
+		ExternalClassInfo result = new ExternalClassInfo();
+		result.modifier = new ClassModifier(source.readUnsignedShort(offset));
+		result.name = readClassName(source.readUnsignedShort(offset+2));
+		int superIndex = source.readUnsignedShort(offset+4);
+		if (superIndex != 0) {
+			result.superName = readClassName(superIndex);
+		}
+		int interfacesCount = source.readUnsignedShort(offset+6);
+		offset+=8;
+		for (int i=0;i<interfacesCount; i++) {
+			result.interfacesNames.add(readClassName(source.readUnsignedShort(offset)));
+			offset+=2;
+		}
+		
+		int fieldsCount = source.readUnsignedShort(offset);
+		offset+=2;
+		for (int i=0;i<fieldsCount; i++) {
+			FieldInfo info = new FieldInfo();
+			info.setModifier(new FieldModifier(source.readUnsignedShort(offset)));
+			info.setName(readUtf8(source.readUnsignedShort(offset+2)));
+			info.setDescriptor(new TypeDescriptor(readUtf8(source.readUnsignedShort(offset+4))));
+			info.setParent(result);
+			result.fields.add(info);
+			offset = skipAttributes(offset+6);
+		}
+		
+		int methodsCount = source.readUnsignedShort(offset);
+		offset+=2;
+		for (int i=0;i<methodsCount; i++) {
+			MethodInfo info = new MethodInfo();
+			info.setModifier(new MethodModifier(source.readUnsignedShort(offset)));
+			info.setName(readUtf8(source.readUnsignedShort(offset+2)));
+			info.setDescriptor(new MethodDescriptor(readUtf8(source.readUnsignedShort(offset+4))));
+			info.setParent(result);
+			result.methods.add(info);
+			offset = skipAttributes(offset+6);
+		}
+		
+		result.updateMetaData();
+		return result;
+	}
+	
+	/**
+	 * remembers tag and offset of every constant
+	 * @return the offset after the constant pool
+	 */
+	private long readConstantPool(long offset) {
+		int count = source.readUnsignedShort(offset);
+		offset+=2;
+		constantOffsets = new long[count];
+		constantTags = new short[count];
+		int i = 1;
+		while (i<count) {
+			short tag = source.readUnsignedByte(offset);
+			constantTags[i] = tag;
+			constantOffsets[i] = offset;
+			switch (tag) {
+				case 1: //Utf8
+					offset+=3+source.readUnsignedShort(offset+1);
+					break;
+				case 7: //Class
+				case 8: //String
+				case 16: //MethodType
+				case 19: //Module
+				case 20: //Package
+					offset+=3;
+					break;
+				case 15: //MethodHandle
+					offset+=4;
+					break;
+				case 3: //Integer
+				case 4: //Float
+				case 9: //Fieldref
+				case 10: //Methodref
+				case 11: //InterfaceMethodref
+				case 12: //NameAndType
+				case 17: //Dynamic
+				case 18: //InvokeDynamic
+					offset+=5;
+					break;
+				case 5: //Long
+				case 6: //Double
+					offset+=9;
+					i++;
+					break;
+				default:
+					throw new IllegalArgumentException("unknown constant pool tag "+tag+" at offset "+offset);
+			}
+			i++;
+		}
+		return offset;
+	}
+	
+	private long skipAttributes(long offset) {
+		int count = source.readUnsignedShort(offset);
+		offset+=2;
+		for (int i=0;i<count; i++) {
+			offset+=6+source.readUnsignedInt(offset+2);
+		}
+		return offset;
+	}
+	
+	private String readClassName(int index) {
+		checkTag(index, 7);
+		return readUtf8(source.readUnsignedShort(constantOffsets[index]+1));
+	}
+	
+	private String readUtf8(int index) {
+		checkTag(index, 1);
+		return StringPool.intern(source.readUTF8(constantOffsets[index]+1).getValue());
+	}
+	
+	private void checkTag(int index, int tag) {
+		if (index<=0 || index>=constantTags.length || constantTags[index] != tag) {
+			throw new IllegalArgumentException("illegal constant pool index "+index+", expected tag "+tag);
+		}
+	}
+	
+}
@@ -1,9 +1,22 @@
 package org.jasm.resolver;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jasm.item.AbstractByteCodeItem;
 import org.jasm.item.IErrorEmitter;
@@ -16,64 +29,223 @@ import org.slf4j.LoggerFactory;
 
 import com.sun.org.apache.xml.internal.serialize.XHTMLSerializer;
 
+/**
+ * 
+ * @author ac
+ * Resolves classes and members against the classpath entries. The resolver may be shared by 
+ * several threads: every class is loaded exactly once by the first thread asking for it, 
+ * the other threads asking for the same class wait for its future, without a global lock.
+ */
 public class ClassInfoResolver  {
 	
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 	
-	private List<IClassPathEntry> entries = new ArrayList<IClassPathEntry>();
+	private List<IClassPathEntry> entries = new CopyOnWriteArrayList<IClassPathEntry>();
+	private volatile ClassPathIndex index = null;
 	
-	private Map<String, AbstractInfo> cache = new HashMap<String, AbstractInfo>();
-	private List<String> notFounds = new ArrayList<String>();
-	private List<String> polymorphicNames = null;
+	private ConcurrentHashMap<String, ClassFuture> cache = new ConcurrentHashMap<String, ClassFuture>();
+	private Set<String> notFounds = ConcurrentHashMap.newKeySet();
+	private Set<MemberKey> notFoundMembers = ConcurrentHashMap.newKeySet();
+	private AtomicLong negativeClassHits = new AtomicLong();
+	private AtomicLong negativeMemberHits = new AtomicLong();
+	private volatile Set<String> polymorphicNames = null;
 	
-	public synchronized ExternalClassInfo resolve(Clazz clazz,  String className, boolean checkAccess)  {
+	/**
+	 * the verifier merges the same pairs of classes over and over, while inferring the types in loops
+	 */
+	private Map<String, Map<String, String>> merges = new ConcurrentHashMap<String, Map<String, String>>();
+	private Map<String, Boolean> interfaceFlags = new ConcurrentHashMap<String, Boolean>();
+	
+	/**
+	 * the future a thread is waiting for, used to detect cyclic class hierarchies
+	 */
+	private Map<Thread, ClassFuture> waiting = new ConcurrentHashMap<Thread, ClassFuture>();
+	
+	/**
+	 * the classes read from binary classpath entries, in the order of loading, they may be evicted 
+	 * and read again later
+	 */
+	private Queue<String> evictables = new ConcurrentLinkedQueue<String>();
+	private AtomicInteger evictablesCount = new AtomicInteger();
+	private volatile int maxCacheSize = 0;
+	private AtomicLong cacheHits = new AtomicLong();
+	private AtomicLong cacheMisses = new AtomicLong();
+	private AtomicLong evictions = new AtomicLong();
+	
+	public ExternalClassInfo resolve(Clazz clazz,  String className, boolean checkAccess)  {
 		
 		
 		if (notFounds.contains(className)) {
+			negativeClassHits.incrementAndGet();
 			return null;
 		}
 		
-		if (cache.containsKey(className)) {
-			AbstractInfo info = cache.get(className);
-			return (ExternalClassInfo)info;
-			
-		}
-		
-		ExternalClassInfo result = null;
-		
-		if (className.startsWith("[")) {
-			result =  resolveArray(clazz,  className);
-			if (result == null) {
-				notFounds.add(className);
+		ClassFuture future = cache.get(className);
+		if (future == null) {
+			ClassFuture created = new ClassFuture();
+			future = cache.putIfAbsent(className, created);
+			if (future == null) {
+				cacheMisses.incrementAndGet();
+				future = created;
+				load(clazz, className, created);
 			} else {
-				cache.put(className, result);
+				cacheHits.incrementAndGet();
+				future.used = true;
 			}
 		} else {
-			result =  resolveClass(clazz, className);
-			if (result == null) {
-				notFounds.add(className);
-			} else {
-				cache.put(className, result);
+			cacheHits.incrementAndGet();
+			future.used = true;
+		}
+		
+		ExternalClassInfo result = await(future);
+		
+		if (result !=null && checkAccess) {
+			//the future is shared, the access of an array's element class is checked for every requester here
+			ExternalClassInfo element = result;
+			while (element != null && element.isArray()) {
+				element = element.componentClass;
 			}
-			if (result !=null && checkAccess) {
-				//String accessKey = clazz.getThisClass().getClassName()+"->"+className;
+			if (element == null || element.getModifier().isPublic()) {
 				
-				if (result.getModifier().isPublic()) {
+			} else {
+				if (clazz.getPackage().equals(element.getPackage())) {
 					
 				} else {
-					if (clazz.getPackage().equals(result.getPackage())) {
-						
-					} else {
-						throw new ResolveIllegalAccessException();
-					}
+					throw new ResolveIllegalAccessException();
 				}
-				
 			}
+			
 		}
 		return result;
 		
 	}
 	
+	private void load(Clazz clazz, String className, ClassFuture future) {
+		ExternalClassInfo result = null;
+		try {
+			if (className.startsWith("[")) {
+				future.evictable = true;
+				result =  resolveArray(clazz,  className);
+			} else {
+				result =  resolveClass(clazz, className, future);
+			}
+		} catch (RuntimeException e) {
+			//not cached, the next request tries again
+			cache.remove(className, future);
+			future.completeExceptionally(e);
+			throw e;
+		}
+		if (result == null) {
+			notFounds.add(className);
+		}
+		future.complete(result);
+		if (result != null && future.evictable && !future.pinned && maxCacheSize > 0) {
+			evictables.add(className);
+			evictablesCount.incrementAndGet();
+			evict();
+		}
+	}
+	
+	/**
+	 * Drops the oldest evictable classes from the cache, until there are no more than maxCacheSize of them.
+	 * Classes requested since the last sweep get a second chance (clock algorithm). Pinned classes are never 
+	 * evicted. Evicting only removes the cache's reference, a later request reads the class into a new info, 
+	 * which is equal by name to infos of the evicted one still in use.
+	 */
+	private void evict() {
+		int max = maxCacheSize;
+		while (evictablesCount.get() > max) {
+			String className = evictables.poll();
+			if (className == null) {
+				return;
+			}
+			ClassFuture future = cache.get(className);
+			if (future == null) {
+				evictablesCount.decrementAndGet();
+				continue;
+			}
+			synchronized (future) {
+				if (future.pinned) {
+					evictablesCount.decrementAndGet();
+				} else if (future.used) {
+					future.used = false;
+					evictables.add(className);
+				} else {
+					evictablesCount.decrementAndGet();
+					if (cache.remove(className, future)) {
+						evictions.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Keeps the class in the cache for good. Super classes, interfaces and component classes are pinned 
+	 * when the infos referencing them are loaded, the verified classes pin their own super types. 
+	 * Evicting them would free nothing, but create a second info for the same class.
+	 */
+	public void pin(ExternalClassInfo info) {
+		ClassFuture future = cache.get(info.getName());
+		if (future == null) {
+			//evicted meanwhile
+			ClassFuture pinned = new ClassFuture();
+			pinned.pinned = true;
+			pinned.complete(info);
+			future = cache.putIfAbsent(info.getName(), pinned);
+			if (future == null) {
+				return;
+			}
+		}
+		synchronized (future) {
+			future.pinned = true;
+		}
+	}
+	
+	private ExternalClassInfo await(ClassFuture future) {
+		if (future.isDone()) {
+			return join(future);
+		}
+		Thread current = Thread.currentThread();
+		if (future.owner == current) {
+			//the class is its own super class or interface
+			return null;
+		}
+		waiting.put(current, future);
+		try {
+			if (isWaitingFor(future.owner, current)) {
+				//a cyclic hierarchy loaded by several threads, the last waiting thread gives up
+				return null;
+			}
+			return join(future);
+		} finally {
+			waiting.remove(current);
+		}
+	}
+	
+	private boolean isWaitingFor(Thread thread, Thread target) {
+		Set<Thread> visited = new HashSet<Thread>();
+		while (thread != null && visited.add(thread)) {
+			if (thread == target) {
+				return true;
+			}
+			ClassFuture future = waiting.get(thread);
+			thread = (future == null)?null:future.owner;
+		}
+		return false;
+	}
+	
+	private ExternalClassInfo join(ClassFuture future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw e;
+		}
+	}
+	
 	private ExternalClassInfo resolveArray(Clazz clazz,  String className) {
 		ExternalClassInfo result = new ExternalClassInfo();
 		TypeDescriptor desc = new TypeDescriptor(className);
@@ -84,13 +256,15 @@ public class ClassInfoResolver  {
 		ExternalClassInfo superInfo = resolve(clazz,  result.superName, false);
 		if (superInfo != null) {
 			result.superClass = superInfo;
+			pin(superInfo);
 			if (desc.getComponentType().isArray() || desc.getComponentType().isObject()) {
 				if (desc.getComponentType().isArray()) {
-					result.componentClass = resolve(clazz,  desc.getComponentType().getValue(), true);
+					result.componentClass = resolve(clazz,  desc.getComponentType().getValue(), false);
 				} else {
-					result.componentClass = resolve(clazz,  desc.getComponentType().getClassName(), true);
+					result.componentClass = resolve(clazz,  desc.getComponentType().getClassName(), false);
 				}
 				if (result.componentClass != null) {
+					pin(result.componentClass);
 					return result;
 				} else {
 					return null;
@@ -104,8 +278,8 @@ public class ClassInfoResolver  {
 		
 	}
 	
-	private ExternalClassInfo resolveClass(Clazz clazz,  String className) {
-		ExternalClassInfo result = findClass(className);
+	private ExternalClassInfo resolveClass(Clazz clazz,  String className, ClassFuture future) {
+		ExternalClassInfo result = findClass(className, future);
 		if (result == null) {
 			return null;
 		} else {
@@ -114,6 +288,7 @@ public class ClassInfoResolver  {
 				ExternalClassInfo superInfo = resolve(clazz,  result.superName, false);
 				if (superInfo != null) {
 					result.superClass = superInfo;
+					pin(superInfo);
 				} else {
 					return null;
 				}
@@ -121,7 +296,8 @@ public class ClassInfoResolver  {
 			for (String name: result.interfacesNames) {
 				ExternalClassInfo intfInfo = resolve(clazz,  name, false);
 				if (intfInfo != null) {
-					result.interfaces.add(intfInfo);
+					result.addInterface(intfInfo);
+					pin(intfInfo);
 				} else {
 					return null;
 				}
@@ -131,10 +307,18 @@ public class ClassInfoResolver  {
 	}
 	
 	ExternalClassInfo findClass(String className) {
-		for (IClassPathEntry entry: entries) {
+		return findClass(className, null);
+	}
+	
+	private ExternalClassInfo findClass(String className, ClassFuture future) {
+		for (IClassPathEntry entry: getIndex().getCandidates(className)) {
 			if (!entry.isInvalid()) {
 				ExternalClassInfo info = entry.findClass(className);
 				if (info != null) {
+					if (future != null) {
+						//binary classes can be read again, the assembled classes stay
+						future.evictable = entry instanceof AbstractBinaryClassPathEntry;
+					}
 					return info;
 				}
 			}
@@ -143,7 +327,7 @@ public class ClassInfoResolver  {
 	}
 	
 	public byte [] findBytes(String resourceName) {
-		for (IClassPathEntry entry: entries) {
+		for (IClassPathEntry entry: getIndex().getCandidates(resourceName)) {
 			if (!entry.isInvalid()) {
 				byte[] data = entry.findBytes(resourceName);
 				if (data != null) {
@@ -158,178 +342,139 @@ public class ClassInfoResolver  {
 	
 	private AbstractInfo resolveMember(Clazz clazz, String className,String name,  String descriptor,boolean checkAccess, MemberFindAndAccess mfa, String label) {
 		
-		String memberKey = className+"."+name+"@"+descriptor;
+		MemberKey memberKey = new MemberKey(className, name, descriptor);
 		
-		if (notFounds.contains(memberKey)) {
+		if (notFoundMembers.contains(memberKey)) {
+			negativeMemberHits.incrementAndGet();
 			if (notFounds.contains(className)) {
 				throw new ResolveClassNotFoundException();
 			}
 			return null;
 		}
 		
+		MemberKey key = new MemberKey(name, descriptor);
+		
 		ExternalClassInfo cli = resolve(clazz,  className, checkAccess);
 		AbstractInfo result = null;
 		
 		if (cli != null) {
-			result = mfa.lookupInClass(cli, name, descriptor);
+			result = mfa.lookupInClass(cli, key);
 			if (result == null) {
-				result = mfa.findMember(cli, name, descriptor);
+				result = mfa.findMember(clazz, cli, key);
 				if (result == null) {
-					notFounds.add(memberKey);
+					notFoundMembers.add(memberKey);
 				} else {
 					mfa.registerVirtualMember(cli, result);
 				}
-				if (result != null) {
-					if (checkAccess) {
-						//String accessKey = clazz.getThisClass().getClassName()+"->"+memberKey;
-						
-						if (mfa.checkAccess(clazz, cli,result)) {
-							
-						} else {
-							throw new ResolveIllegalAccessException();
-						}
-						
-					}
-				} 
+			}
+			//registered members are checked as well, the access depends on the requesting class
+			if (result != null && checkAccess && !mfa.checkAccess(clazz, cli,result)) {
+				throw new ResolveIllegalAccessException();
 			}
 			
 		} else {
-			notFounds.add(memberKey);
+			notFoundMembers.add(memberKey);
 			throw new ResolveClassNotFoundException();
 		}
 		return result;
 	}
 	
-	public FieldInfo resolveField(Clazz clazz,String className,String name,  String descriptor,boolean checkAccess)  {
-		MemberFindAndAccess mfa = new MemberFindAndAccess() {
-			
-			@Override
-			public AbstractInfo findMember(ExternalClassInfo cli, String name,
-					String descriptor) {
-				return findField(cli, name, descriptor);
-			}
-			
-			@Override
-			public boolean checkAccess(Clazz clazz, ExternalClassInfo requestClass,
-					AbstractInfo member) {
-				return checkMemberAccess(clazz, requestClass, (FieldInfo)member);
-			}
+	/**
+	 * the lookup strategies are stateless, they are shared by all calls
+	 */
+	private final MemberFindAndAccess fieldLookup = new MemberFindAndAccess() {
+		
+		@Override
+		public AbstractInfo findMember(Clazz clazz, ExternalClassInfo cli, MemberKey key) {
+			return findField(cli, key);
+		}
+		
+		@Override
+		public boolean checkAccess(Clazz clazz, ExternalClassInfo requestClass,
+				AbstractInfo member) {
+			return checkMemberAccess(clazz, requestClass, (FieldInfo)member);
+		}
 
-			@Override
-			public AbstractInfo lookupInClass(ExternalClassInfo cli,
-					String name, String desc) {
-				return cli.getField(name, desc);
-			}
+		@Override
+		public AbstractInfo lookupInClass(ExternalClassInfo cli, MemberKey key) {
+			return cli.getField(key);
+		}
 
-			@Override
-			public void registerVirtualMember(ExternalClassInfo cli, AbstractInfo info) {
-				cli.registerVirtualField((FieldInfo)info);
-			}
-			
-			
-			
-		};
-		
-		return (FieldInfo)resolveMember(clazz, className, name, descriptor, checkAccess, mfa, "field");
+		@Override
+		public void registerVirtualMember(ExternalClassInfo cli, AbstractInfo info) {
+			cli.registerVirtualField((FieldInfo)info);
+		}
 		
-	}
+	};
 	
-	public MethodInfo resolveMethod(Clazz clazz,  String className,String name,  String descriptor,boolean checkAccess)  {
-		MemberFindAndAccess mfa = new MemberFindAndAccess() {
-			
-			@Override
-			public AbstractInfo findMember(ExternalClassInfo cli, String name,
-					String descriptor) {
-				return findMethod(clazz, cli, name, descriptor);
-			}
-			
-			@Override
-			public boolean checkAccess(Clazz clazz, ExternalClassInfo requestClass,
-					AbstractInfo member) {
-				return checkMemberAccess(clazz, requestClass, (MethodInfo)member);
-			}
+	private final MemberFindAndAccess methodLookup = new MemberFindAndAccess() {
+		
+		@Override
+		public AbstractInfo findMember(Clazz clazz, ExternalClassInfo cli, MemberKey key) {
+			return findMethod(clazz, cli, key);
+		}
+		
+		@Override
+		public boolean checkAccess(Clazz clazz, ExternalClassInfo requestClass,
+				AbstractInfo member) {
+			return checkMemberAccess(clazz, requestClass, (MethodInfo)member);
+		}
 
-			@Override
-			public AbstractInfo lookupInClass(ExternalClassInfo cli,
-					String name, String desc) {
-				return cli.getMethod(name, desc);
-			}
+		@Override
+		public AbstractInfo lookupInClass(ExternalClassInfo cli, MemberKey key) {
+			return cli.getMethod(key);
+		}
 
-			@Override
-			public void registerVirtualMember(ExternalClassInfo cli,
-					AbstractInfo info) {
-				cli.registerVirtualMethod((MethodInfo)info);
-				
-			}
-			
+		@Override
+		public void registerVirtualMember(ExternalClassInfo cli,
+				AbstractInfo info) {
+			cli.registerVirtualMethod((MethodInfo)info);
 			
-		};
-		
-		return (MethodInfo)resolveMember(clazz,  className, name, descriptor, checkAccess, mfa, "method");
+		}
 		
-	}
+	};
 	
-	public MethodInfo resolveInterfaceMethod(Clazz clazz,  String className,String name,  String descriptor,boolean checkAccess)  {
-		MemberFindAndAccess mfa = new MemberFindAndAccess() {
-			
-			@Override
-			public AbstractInfo findMember(ExternalClassInfo cli, String name,
-					String descriptor) {
-				return findInterfaceMethod(cli, name, descriptor);
-			}
-			
-			@Override
-			public boolean checkAccess( Clazz clazz, ExternalClassInfo requestClass,
-					AbstractInfo member) {
-				return checkMemberAccess(clazz, requestClass, (MethodInfo)member);
-			}
-			
-			@Override
-			public AbstractInfo lookupInClass(ExternalClassInfo cli,
-					String name, String desc) {
-				return cli.getMethod(name, desc);
-			}
+	private final MemberFindAndAccess interfaceMethodLookup = new MemberFindAndAccess() {
+		
+		@Override
+		public AbstractInfo findMember(Clazz clazz, ExternalClassInfo cli, MemberKey key) {
+			return findInterfaceMethod(cli, key);
+		}
+		
+		@Override
+		public boolean checkAccess( Clazz clazz, ExternalClassInfo requestClass,
+				AbstractInfo member) {
+			return checkMemberAccess(clazz, requestClass, (MethodInfo)member);
+		}
+		
+		@Override
+		public AbstractInfo lookupInClass(ExternalClassInfo cli, MemberKey key) {
+			return cli.getMethod(key);
+		}
 
-			@Override
-			public void registerVirtualMember(ExternalClassInfo cli,
-					AbstractInfo info) {
-				cli.registerVirtualMethod((MethodInfo)info);
-				
-			}
-			
+		@Override
+		public void registerVirtualMember(ExternalClassInfo cli,
+				AbstractInfo info) {
+			cli.registerVirtualMethod((MethodInfo)info);
 			
-		};
-		
-		return (MethodInfo)resolveMember(clazz, className, name, descriptor, checkAccess,  mfa, "interface method");
+		}
 		
+	};
+	
+	public FieldInfo resolveField(Clazz clazz,String className,String name,  String descriptor,boolean checkAccess)  {
+		return (FieldInfo)resolveMember(clazz, className, name, descriptor, checkAccess, fieldLookup, "field");
 	}
 	
-	private FieldInfo findField(ExternalClassInfo cli, String name, String descriptor) {
-		
-		
-		FieldInfo info = cli.getField(name, descriptor);
-		if (info != null) {
-			return info;
-		} else {
-			int i=0;
-			for (ExternalClassInfo intf: cli.getInterfaces()) {
-				info = findField(intf, name, descriptor);
-				if (info != null) {
-					return info;
-				}
-				i++;
-			}
-			if (cli.getSuperClass() != null) {
-				info = findField(cli.getSuperClass(), name, descriptor);
-				if (info != null) {
-					return info;
-				} else {
-					return null;
-				}
-			} else {
-				return null;
-			}
-		}
+	public MethodInfo resolveMethod(Clazz clazz,  String className,String name,  String descriptor,boolean checkAccess)  {
+		return (MethodInfo)resolveMember(clazz,  className, name, descriptor, checkAccess, methodLookup, "method");
+	}
+	
+	public MethodInfo resolveInterfaceMethod(Clazz clazz,  String className,String name,  String descriptor,boolean checkAccess)  {
+		return (MethodInfo)resolveMember(clazz, className, name, descriptor, checkAccess,  interfaceMethodLookup, "interface method");
+	}
+	
+	private FieldInfo findField(ExternalClassInfo cli, MemberKey key) {
+		return cli.findField(key);
 	}
 	
 	private boolean checkMemberAccess(Clazz clazz, ExternalClassInfo requestClass, AbstractMemberInfo fi) {
@@ -355,29 +500,29 @@ public class ClassInfoResolver  {
 			
 		  return true;
 			
-		} else if (fi.getMemberModifier().isPrivate() && me.equals(fi.getParent()) ) {
+		} else if (fi.getMemberModifier().isPrivate() && me.getName().equals(fi.getParent().getName()) ) {
 			return true;
 		}
 		
 		return false;
 	}
 	
-	private MethodInfo findMethod(Clazz clazz,  ExternalClassInfo cli, String name, String descriptor) {
+	private MethodInfo findMethod(Clazz clazz,  ExternalClassInfo cli, MemberKey key) {
 		
 		if (cli.getModifier() != null && cli.getModifier().isInterface()) {
 			throw new ResolveIsInterfaceException();
 		}
 		
 				
-		MethodInfo info = findMethodInClassAndSuperClasses(clazz,  cli, name, descriptor);
+		MethodInfo info = findMethodInClassAndSuperClasses(clazz,  cli, key);
 		if (info != null) {
 			return info;
 		} else {
-			return lookupSuperInterfaceMethod(cli, name, descriptor);
+			return lookupSuperInterfaceMethod(cli, key);
 		}
 	}
 	
-	private MethodInfo findInterfaceMethod(ExternalClassInfo cli, String name, String descriptor) {
+	private MethodInfo findInterfaceMethod(ExternalClassInfo cli, MemberKey key) {
 		
 		if (!(cli.getModifier() != null && cli.getModifier().isInterface())) {
 			throw new ResolveIsntInterfaceException();
@@ -385,25 +530,25 @@ public class ClassInfoResolver  {
 		
 		ExternalClassInfo object = cli.getSuperClass();
 				
-		MethodInfo info = cli.getMethod(name, descriptor);
+		MethodInfo info = cli.getMethod(key);
 		if (info != null) {
 			return info;
 		} else {
-			info = cli.getSuperClass().getMethod(name, descriptor);
+			info = cli.getSuperClass().getMethod(key);
 			if (info != null && info.getModifier().isPublic() && !info.getModifier().isStatic()) {
 				return info;
 			} else {
-				return lookupSuperInterfaceMethod(cli, name, descriptor);
+				return lookupSuperInterfaceMethod(cli, key);
 			}
 			
 			
 		}
 	}
 	
-	private MethodInfo lookupSuperInterfaceMethod(ExternalClassInfo cli, String name, String descriptor) {
+	private MethodInfo lookupSuperInterfaceMethod(ExternalClassInfo cli, MemberKey key) {
 		List<MethodInfo> all = new ArrayList<MethodInfo>();
 		List<MethodInfo> maxSpecific = new ArrayList<MethodInfo>();
-		collectSuperInterfaceMethods(all, maxSpecific, cli, cli, name, descriptor, true);
+		collectSuperInterfaceMethods(all, maxSpecific, cli, cli, key, true);
 		if (maxSpecific.size() == 1) {
 			return maxSpecific.get(0);
 		} else if (all.size() > 0) {
@@ -413,10 +558,10 @@ public class ClassInfoResolver  {
 		}
 	}
 	
-	private void collectSuperInterfaceMethods(List<MethodInfo> all, List<MethodInfo> maxSpecific, ExternalClassInfo root, ExternalClassInfo cli, String name, String descriptor, boolean doMaxSpecific) {
+	private void collectSuperInterfaceMethods(List<MethodInfo> all, List<MethodInfo> maxSpecific, ExternalClassInfo root, ExternalClassInfo cli, MemberKey key, boolean doMaxSpecific) {
 		MethodInfo found = null;
 		if (root != cli && cli.getModifier() != null && cli.getModifier().isInterface()) {
-			found = cli.getMethod(name, descriptor);
+			found = cli.getMethod(key);
 		}
 		boolean maxSpecificAdded = false;
 		if (doMaxSpecific && found != null && !found.getModifier().isPrivate() && !found.getModifier().isStatic() && !found.getModifier().isAbstract()) {
@@ -427,28 +572,38 @@ public class ClassInfoResolver  {
 			all.add(found);
 		}
 		if (cli.getSuperClass() != null) {
-			collectSuperInterfaceMethods(all, maxSpecific, root, cli.getSuperClass(), name, descriptor, doMaxSpecific && !maxSpecificAdded);
+			collectSuperInterfaceMethods(all, maxSpecific, root, cli.getSuperClass(), key, doMaxSpecific && !maxSpecificAdded);
 		}
 		for (ExternalClassInfo intf: cli.getInterfaces()) {
-			collectSuperInterfaceMethods(all, maxSpecific, root, intf, name, descriptor, doMaxSpecific && !maxSpecificAdded);
+			collectSuperInterfaceMethods(all, maxSpecific, root, intf, key, doMaxSpecific && !maxSpecificAdded);
 		}
 		
 	}
 	
-	private MethodInfo findMethodInClassAndSuperClasses(Clazz clazz,  ExternalClassInfo cli, String name, String descriptor) {
-		
+	private MethodInfo findMethodInClassAndSuperClasses(Clazz clazz,  ExternalClassInfo cli, MemberKey key) {
 		
-		if (isPolymorphic(clazz,cli, name, descriptor) && cli.getMethodByName(name) != null && cli.getMethodByName(name).size() == 1) {
-			return cli.getMethodByName(name).get(0);
+		if (isPolymorphic(clazz,cli, key.getName(), key.getDescriptor())) {
+			return findPolymorphicMethod(clazz, cli, key);
+		} else {
+			return cli.findClassMethod(key);
 		}
+	}
+	
+	/**
+	 * signature polymorphic methods match any descriptor, so they are looked up by name
+	 */
+	private MethodInfo findPolymorphicMethod(Clazz clazz,  ExternalClassInfo cli, MemberKey key) {
 		
+		if (cli.getMethodByName(key.getName()) != null && cli.getMethodByName(key.getName()).size() == 1) {
+			return cli.getMethodByName(key.getName()).get(0);
+		}
 		
-		MethodInfo info = cli.getMethod(name, descriptor);
+		MethodInfo info = cli.getMethod(key);
 		if (info != null) {
 			return info;
 		} else {
 			if (cli.getSuperClass() != null) {
-			    return findMethodInClassAndSuperClasses(clazz,  cli.getSuperClass(), name, descriptor);
+			    return findPolymorphicMethod(clazz,  cli.getSuperClass(), key);
 			} else {
 				return null;
 			}
@@ -456,9 +611,9 @@ public class ClassInfoResolver  {
 		}
 	}
 	
-	private synchronized void initPolymorphic(Clazz clazz, ExternalClassInfo cli, String name, String descriptor) {
+	private void initPolymorphic(Clazz clazz, ExternalClassInfo cli, String name, String descriptor) {
 		if (polymorphicNames == null) {
-			polymorphicNames = new ArrayList<String>();
+			Set<String> names = new HashSet<String>();
 			ExternalClassInfo mhandle = resolve(clazz,  "java/lang/invoke/MethodHandle", false);
 			if (mhandle != null) {
 				for (MethodInfo info: mhandle.getMethods()) {
@@ -467,38 +622,176 @@ public class ClassInfoResolver  {
 							&& desc.getParameters().size() == 1
 							&& desc.getParameters().get(0).getValue().equals("[Ljava/lang/Object;");
 					if (pml) {
-						polymorphicNames.add(info.getName());
+						names.add(info.getName());
 					}
 					
 				}
 			}
+			polymorphicNames = names;
 		}	
 	}
 	
 	private boolean isPolymorphic(Clazz clazz, ExternalClassInfo cli, String name, String descriptor) {
-		if (polymorphicNames == null) {
+		Set<String> names = polymorphicNames;
+		if (names == null) {
+			//concurrent initializations compute the same set, the last one wins
 			initPolymorphic(clazz,cli,name, descriptor);
+			names = polymorphicNames;
 		}	
-		return polymorphicNames.contains(name);
+		return names.contains(name);
 	}
 	
 	
-	public void add(IClassPathEntry entry) {
+	private ClassPathIndex getIndex() {
+		ClassPathIndex result = index;
+		if (result == null) {
+			synchronized (this) {
+				result = index;
+				if (result == null) {
+					result = new ClassPathIndex(entries);
+					index = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	public synchronized void add(IClassPathEntry entry) {
 		entries.add(entry);
+		index = null;
 	}
 	
-	public void addAtBegin(IClassPathEntry entry) {
+	public synchronized void addAtBegin(IClassPathEntry entry) {
 		entries.add(0, entry);
+		index = null;
+	}
+	
+	/**
+	 * Loads the classes in parallel, so the verification finds them cached instead of
+	 * loading them one by one. Classes which can't be loaded are ignored, the verification reports them.
+	 * @return the number of classes found
+	 */
+	public int prefetch(Collection<String> classNames, int threads) {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final AtomicInteger found = new AtomicInteger();
+		try {
+			for (final String className: classNames) {
+				pool.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							if (resolve(null, className, false) != null) {
+								found.incrementAndGet();
+							}
+						} catch (RuntimeException e) {
+							log.debug("Couldn't prefetch "+className+": "+e.getMessage());
+						}
+					}
+				});
+			}
+		} finally {
+			pool.shutdown();
+		}
+		try {
+			pool.awaitTermination(1, TimeUnit.DAYS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return found.get();
+	}
+	
+	/**
+	 * 
+	 * @return how often a class was requested, which was already known to be missing
+	 */
+	public long getNegativeClassHits() {
+		return negativeClassHits.get();
+	}
+	
+	/**
+	 * 
+	 * @return how often a field or method was requested, which was already known to be missing
+	 */
+	public long getNegativeMemberHits() {
+		return negativeMemberHits.get();
+	}
+	
+	/**
+	 * 
+	 * @param maxCacheSize the maximum number of cached classes read from binary classpath entries, 0 means no limit
+	 */
+	public void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+		if (maxCacheSize > 0) {
+			evict();
+		}
+	}
+	
+	public int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+	
+	public long getCacheHits() {
+		return cacheHits.get();
+	}
+	
+	public long getCacheMisses() {
+		return cacheMisses.get();
+	}
+	
+	public long getEvictions() {
+		return evictions.get();
+	}
+	
+	/**
+	 * 
+	 * @return the common super class, computed by a previous call of putMerge, or null
+	 */
+	public String getMerge(String classTo, String classFrom) {
+		Map<String, String> results = merges.get(classTo);
+		return (results == null)?null:results.get(classFrom);
+	}
+	
+	public void putMerge(String classTo, String classFrom, String result) {
+		Map<String, String> results = merges.get(classTo);
+		if (results == null) {
+			merges.putIfAbsent(classTo, new ConcurrentHashMap<String, String>());
+			results = merges.get(classTo);
+		}
+		results.put(classFrom, result);
+	}
+	
+	/**
+	 * 
+	 * @return if the class is an interface, as stored by a previous call of putInterface, or null
+	 */
+	public Boolean getInterface(String className) {
+		return interfaceFlags.get(className);
+	}
+	
+	public void putInterface(String className, boolean isInterface) {
+		interfaceFlags.put(className, isInterface);
 	}
 	
 	public void logStatus() {
-		log.info("Cache size: "+cache.size());
+		log.info("Cache size: "+cache.size()+", not found classes: "+notFounds.size()+", not found members: "+notFoundMembers.size()
+				+", negative hits: "+negativeClassHits.get()+" classes, "+negativeMemberHits.get()+" members, merged classes: "+merges.size()
+				+", hits: "+cacheHits.get()+", misses: "+cacheMisses.get()+", evictions: "+evictions.get());
 	}
 }
 
+class ClassFuture extends CompletableFuture<ExternalClassInfo> {
+	
+	final Thread owner = Thread.currentThread();
+	volatile boolean evictable = false;
+	volatile boolean used = false;
+	volatile boolean pinned = false;
+	
+}
+
 interface MemberFindAndAccess {
-	AbstractInfo findMember(ExternalClassInfo cli, String name, String descriptor);
-	AbstractInfo lookupInClass(ExternalClassInfo cli, String name, String desc);
+	AbstractInfo findMember(Clazz clazz, ExternalClassInfo cli, MemberKey key);
+	AbstractInfo lookupInClass(ExternalClassInfo cli, MemberKey key);
 	void registerVirtualMember(ExternalClassInfo cli, AbstractInfo info);
 	boolean checkAccess(Clazz clazz, ExternalClassInfo requestClass, AbstractInfo member);
 }
@@ -0,0 +1,75 @@
+package org.jasm.resolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 
+ * @author ac
+ * Maps packages to the classpath entries containing them. Entries, which can't list
+ * their packages, are candidates for every package. The candidates of a package are kept
+ * in classpath order, so the first entry containing a class still wins.
+ */
+class ClassPathIndex {
+	
+	private Logger log = LoggerFactory.getLogger(this.getClass());
+	
+	private Map<String, List<IClassPathEntry>> entriesByPackage = new HashMap<String, List<IClassPathEntry>>();
+	private List<IClassPathEntry> unlisted = new ArrayList<IClassPathEntry>();
+	
+	ClassPathIndex(List<IClassPathEntry> entries) {
+		for (IClassPathEntry entry: entries) {
+			Set<String> packages = null;
+			if (entry instanceof IPackageListingClassPathEntry) {
+				try {
+					packages = ((IPackageListingClassPathEntry)entry).getPackages();
+				} catch (RuntimeException e) {
+					//probed for every lookup, reading the entry reports the error
+					log.debug("Couldn't list "+entry+": "+e.getMessage());
+				}
+			}
+			if (packages == null) {
+				//needed by all packages, including the ones already indexed
+				for (List<IClassPathEntry> list: entriesByPackage.values()) {
+					list.add(entry);
+				}
+				unlisted.add(entry);
+			} else {
+				for (String pack: packages) {
+					List<IClassPathEntry> list = entriesByPackage.get(pack);
+					if (list == null) {
+						list = new ArrayList<IClassPathEntry>(unlisted);
+						entriesByPackage.put(pack, list);
+					}
+					list.add(entry);
+				}
+			}
+		}
+		unlisted = Collections.unmodifiableList(unlisted);
+	}
+	
+	/**
+	 * 
+	 * @param resourceName class name or resource path, separated by slashes
+	 * @return the entries, which may contain the resource, in classpath order
+	 */
+	List<IClassPathEntry> getCandidates(String resourceName) {
+		List<IClassPathEntry> result = entriesByPackage.get(AbstractBinaryClassPathEntry.getPackage(resourceName));
+		if (result == null) {
+			return unlisted;
+		}
+		return result;
+	}
+	
+	int getPackagesCount() {
+		return entriesByPackage.size();
+	}
+	
+}
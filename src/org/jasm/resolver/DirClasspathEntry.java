@@ -3,10 +3,17 @@ package org.jasm.resolver;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.NioByteBuffer;
 
-public class DirClasspathEntry extends AbstractBinaryClassPathEntry {
+public class DirClasspathEntry extends AbstractBinaryClassPathEntry implements IPackageListingClassPathEntry {
+	
+	//smaller files are read, mapping them costs more than copying their few bytes
+	private static final long MAPPING_THRESHOLD = 64*1024;
 	
 	private File rootDir;
 	
@@ -26,7 +33,11 @@ public class DirClasspathEntry extends AbstractBinaryClassPathEntry {
 			byte [] result = new byte[(int)clazzFile.length()];
 			try {
 				FileInputStream stream = new FileInputStream(clazzFile);
-				IOUtils.readFully(stream, result);
+				try {
+					IOUtils.readFully(stream, result);
+				} finally {
+					stream.close();
+				}
 				return result;
 			} catch (IOException e) {
 				throw new RuntimeException(e);
@@ -38,6 +49,55 @@ public class DirClasspathEntry extends AbstractBinaryClassPathEntry {
 		
 	}
 
+	@Override
+	protected IByteBuffer findBuffer(String resourceName) {
+		
+		if (!(rootDir.exists() && rootDir.isDirectory())) {
+			throw new IllegalArgumentException(rootDir.getAbsolutePath()+" doesn't exist or isn't a directory!");
+		}
+
+		File clazzFile = new File(rootDir, resourceName);
+		if (clazzFile.exists() && clazzFile.isFile()) {
+			if (clazzFile.length() < MAPPING_THRESHOLD) {
+				return super.findBuffer(resourceName);
+			}
+			try {
+				return NioByteBuffer.map(clazzFile);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * the directory is listed once, packages created later aren't found by the resolver
+	 */
+	@Override
+	public Set<String> getPackages() {
+		if (!(rootDir.exists() && rootDir.isDirectory())) {
+			return null;
+		}
+		Set<String> result = new HashSet<String>();
+		collectPackages(rootDir, "", result);
+		return result;
+	}
+	
+	private void collectPackages(File dir, String pack, Set<String> result) {
+		File [] children = dir.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child: children) {
+			if (child.isDirectory()) {
+				collectPackages(child, (pack.length() == 0)?child.getName():pack+"/"+child.getName(), result);
+			} else {
+				result.add(pack);
+			}
+		}
+	}
+
 	@Override
 	protected String getName() {
 		return rootDir.getAbsolutePath();
@@ -1,14 +1,20 @@
 package org.jasm.resolver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jasm.item.clazz.Clazz;
 import org.jasm.item.clazz.Field;
 import org.jasm.item.clazz.Method;
 import org.jasm.item.modifier.ClassModifier;
+import org.jasm.map.StringPool;
 import org.jasm.type.descriptor.MethodDescriptor;
 import org.jasm.type.descriptor.TypeDescriptor;
 
@@ -27,9 +33,15 @@ public class ExternalClassInfo extends AbstractInfo {
 	TypeDescriptor descriptor;
 	ExternalClassInfo componentClass;
 	
-	private Map<String, MethodInfo> methodRegistry = new HashMap<String, MethodInfo>();
-	private Map<String, FieldInfo> fieldRegistry = new HashMap<String, FieldInfo>();
+	//virtual members are registered while the info is shared by the resolving threads
+	private Map<MemberKey, MethodInfo> methodRegistry = new ConcurrentHashMap<MemberKey, MethodInfo>();
+	private Map<MemberKey, FieldInfo> fieldRegistry = new ConcurrentHashMap<MemberKey, FieldInfo>();
+	//the members found in the super types, only for the lookups of findField and findClassMethod, 
+	//the resolver's lookups in the registries check the access of these themselves
+	private Map<MemberKey, MethodInfo> inheritedMethods = new ConcurrentHashMap<MemberKey, MethodInfo>();
+	private Map<MemberKey, FieldInfo> inheritedFields = new ConcurrentHashMap<MemberKey, FieldInfo>();
 	private Map<String, List<MethodInfo>> methodsByName = new HashMap<String, List<MethodInfo>>();
+	private volatile Supertypes supertypes;
 	
 	
 	
@@ -66,14 +78,7 @@ public class ExternalClassInfo extends AbstractInfo {
 			if (info.isArray) {
 				return false;
 			} else {
-				boolean result = false;
-				if (superClass != null) {
-					result = result || superClass.isAssignableTo(info);
-				}
-				for (ExternalClassInfo intf: interfaces) {
-					result = result || intf.isAssignableTo(info);
-				}
-				return result;
+				return getSupertypes().all.contains(info.name);
 			}
 		}
 		
@@ -85,18 +90,52 @@ public class ExternalClassInfo extends AbstractInfo {
 		} else if (this.isArray) {
 			return info.getName().equals("java/lang/Object");
 		} else {
-			if (name.equals(info.getName())) {
-				return true;
-			} else if (superClass != null) {
-				return superClass.isDerivedFrom(info);
+			String [] ancestors = getSupertypes().ancestors;
+			int depth = info.getSupertypes().ancestors.length-1;
+			return depth < ancestors.length && ancestors[depth].equals(info.getName());
+		}
+		
+	}
+	
+	/**
+	 * the closure is computed on first use, when the super class and the interfaces are resolved
+	 */
+	private Supertypes getSupertypes() {
+		Supertypes result = supertypes;
+		if (result == null) {
+			result = new Supertypes(this);
+			supertypes = result;
+		}
+		return result;
+	}
+	
+	/**
+	 * The names of all super classes and interfaces of a class (including itself), 
+	 * and its super classes by depth, starting with the root of the hierarchy
+	 */
+	private static class Supertypes {
+		
+		private final String [] ancestors;
+		private final Set<String> all;
+		
+		Supertypes(ExternalClassInfo info) {
+			if (info.superClass == null) {
+				ancestors = new String[]{info.name};
+				all = new HashSet<String>();
 			} else {
-				return false;
+				Supertypes parent = info.superClass.getSupertypes();
+				ancestors = Arrays.copyOf(parent.ancestors, parent.ancestors.length+1);
+				ancestors[ancestors.length-1] = info.name;
+				all = new HashSet<String>(parent.all);
+			}
+			all.add(info.name);
+			for (ExternalClassInfo intf: info.interfaces) {
+				all.addAll(intf.getSupertypes().all);
 			}
 		}
 		
 	}
 	
-
 	public String getSuperName() {
 		return superName;
 	}
@@ -107,8 +146,18 @@ public class ExternalClassInfo extends AbstractInfo {
 
 
 
+	/**
+	 * read only, interfaces are added by {@link #addInterface(ExternalClassInfo)}
+	 */
 	public List<ExternalClassInfo> getInterfaces() {
-		return interfaces;
+		return Collections.unmodifiableList(interfaces);
+	}
+	
+	public void addInterface(ExternalClassInfo intf) {
+		interfaces.add(intf);
+		this.supertypes = null;
+		inheritedMethods.clear();
+		inheritedFields.clear();
 	}
 	
 	public ExternalClassInfo getSuperClass() {
@@ -146,7 +195,7 @@ public class ExternalClassInfo extends AbstractInfo {
 	public void updateMetaData() {
 		methodRegistry.clear();
 		for (MethodInfo mi: methods) {
-			methodRegistry.put(mi.getName()+"@"+mi.getDescriptor().getValue(),mi);
+			methodRegistry.put(new MemberKey(mi.getName(), mi.getDescriptor().getValue()),mi);
 			if (methodsByName.containsKey(mi.getName())) {
 				List<MethodInfo> infos = methodsByName.get(mi.getName());
 				infos.add(mi);
@@ -158,16 +207,16 @@ public class ExternalClassInfo extends AbstractInfo {
 		}
 		fieldRegistry.clear();
 		for (FieldInfo fi: fields) {
-			fieldRegistry.put(fi.getName()+"@"+fi.getDescriptor().getValue(),fi);
+			fieldRegistry.put(new MemberKey(fi.getName(), fi.getDescriptor().getValue()),fi);
 		}
 	}
 	
 	public void registerVirtualField(FieldInfo fi) {
-		fieldRegistry.put(fi.getName()+"@"+fi.getDescriptor().getValue(),fi);
+		fieldRegistry.put(new MemberKey(fi.getName(), fi.getDescriptor().getValue()),fi);
 	}
 	
 	public void registerVirtualMethod(MethodInfo fi) {
-		methodRegistry.put(fi.getName()+"@"+fi.getDescriptor().getValue(),fi);
+		methodRegistry.put(new MemberKey(fi.getName(), fi.getDescriptor().getValue()),fi);
 	}
 	
 	public List<MethodInfo> getMethodByName(String name) {
@@ -175,30 +224,84 @@ public class ExternalClassInfo extends AbstractInfo {
 	}
 	
 	public MethodInfo getMethod(String name, String descriptor) {
-		return methodRegistry.get(name+"@"+descriptor);
+		return getMethod(new MemberKey(name, descriptor));
+	}
+	
+	public MethodInfo getMethod(MemberKey key) {
+		return methodRegistry.get(key);
 	}
 	
 	public FieldInfo getField(String name, String descriptor) {
-		return fieldRegistry.get(name+"@"+descriptor);
+		return getField(new MemberKey(name, descriptor));
+	}
+	
+	public FieldInfo getField(MemberKey key) {
+		return fieldRegistry.get(key);
+	}
+	
+	/**
+	 * 
+	 * @return the field declared by this class or inherited, searching the class itself, then its 
+	 * interfaces and then its super class, like the field resolution of the JVM. Inherited fields 
+	 * are remembered by every class on the way, so the next lookup finds them directly,
+	 * without copying the members of the super types into every class. They aren't registered,
+	 * {@link #getField(MemberKey)} returns the fields declared or registered by the resolver only.
+	 */
+	public FieldInfo findField(MemberKey key) {
+		FieldInfo result = fieldRegistry.get(key);
+		if (result == null) {
+			result = inheritedFields.get(key);
+		}
+		if (result == null) {
+			for (int i=0;i<interfaces.size() && result == null; i++) {
+				result = interfaces.get(i).findField(key);
+			}
+			if (result == null && superClass != null) {
+				result = superClass.findField(key);
+			}
+			if (result != null) {
+				inheritedFields.put(key, result);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 
+	 * @return the method declared by this class or inherited from its super classes,
+	 * remembered like the inherited fields of {@link #findField(MemberKey)}
+	 */
+	public MethodInfo findClassMethod(MemberKey key) {
+		MethodInfo result = methodRegistry.get(key);
+		if (result == null) {
+			result = inheritedMethods.get(key);
+		}
+		if (result == null && superClass != null) {
+			result = superClass.findClassMethod(key);
+			if (result != null) {
+				inheritedMethods.put(key, result);
+			}
+		}
+		return result;
 	}
 	
 	public static ExternalClassInfo createFromClass(Clazz clazz) {
 		ExternalClassInfo result = new ExternalClassInfo();
 		
-		result.name = clazz.getThisClass().getClassName();
+		result.name = StringPool.intern(clazz.getThisClass().getClassName());
 		if (clazz.getSuperClass() != null) {
-			result.superName = clazz.getSuperClass().getClassName();
+			result.superName = StringPool.intern(clazz.getSuperClass().getClassName());
 		}
 		result.modifier = clazz.getModifier();
 		
 		for (org.jasm.item.constantpool.ClassInfo clinfo: clazz.getInterfaces()) {
-			result.interfacesNames.add(clinfo.getClassName());
+			result.interfacesNames.add(StringPool.intern(clinfo.getClassName()));
 		}
 		
 		for (int i=0;i<clazz.getMethods().getSize(); i++) {
 			Method meth = clazz.getMethods().get(i);
 			MethodInfo info = new MethodInfo();
-			info.setName(meth.getName().getValue());
+			info.setName(StringPool.intern(meth.getName().getValue()));
 			info.setDescriptor(new MethodDescriptor(meth.getDescriptor().getValue()));
 			info.setParent(result);
 			info.setModifier(meth.getModifier());
@@ -208,7 +311,7 @@ public class ExternalClassInfo extends AbstractInfo {
 		for (int i=0;i<clazz.getFields().getSize(); i++) {
 			Field field = clazz.getFields().get(i);
 			FieldInfo info = new FieldInfo();
-			info.setName(field.getName().getValue());
+			info.setName(StringPool.intern(field.getName().getValue()));
 			info.setDescriptor(new TypeDescriptor(field.getDescriptor().getValue()));
 			info.setParent(result);
 			info.setModifier(field.getModifier());
@@ -222,6 +325,9 @@ public class ExternalClassInfo extends AbstractInfo {
 
 	public void setSuperClass(ExternalClassInfo superClass) {
 		this.superClass = superClass;
+		this.supertypes = null;
+		inheritedMethods.clear();
+		inheritedFields.clear();
 	}
 	
 	
@@ -0,0 +1,20 @@
+package org.jasm.resolver;
+
+import java.util.Set;
+
+/**
+ * 
+ * @author ac
+ * Classpath entry, which is able to list its contents up front. The resolver uses the 
+ * packages to ask only the entries which may contain a class or resource.
+ */
+public interface IPackageListingClassPathEntry extends IClassPathEntry {
+	
+	/**
+	 * 
+	 * @return the names (with slashes, "" for the default package) of all packages 
+	 * containing at least one resource, or null if the entry can't be listed
+	 */
+	public Set<String> getPackages();
+	
+}
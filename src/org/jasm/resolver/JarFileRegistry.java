@@ -0,0 +1,214 @@
+package org.jasm.resolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.MappedZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author ac
+ * Process wide registry of the opened jar files, so a jar used by several classpath entries 
+ * (e.g. by the resolvers of several assembler runs) is opened and mapped only once.
+ * The jars are closed on shutdown or by {@link #closeAll()}, they are opened again when needed.
+ * closeAll() doesn't close jars in use by {@link #readEntry(File, String)} or {@link #getEntryNames(File)},
+ * they are closed when the last of those returns.
+ */
+public class JarFileRegistry {
+	
+	private static Logger log = LoggerFactory.getLogger(JarFileRegistry.class);
+	
+	private static Map<String, SharedJar> jars = new ConcurrentHashMap<String, SharedJar>();
+	private static Map<String, MappedZipFile> mappings = new ConcurrentHashMap<String, MappedZipFile>();
+	private static boolean shutdownHookRegistered = false;
+	
+	private JarFileRegistry() {
+		
+	}
+	
+	public static MappedZipFile getMappedJar(File file) throws IOException {
+		String key = file.getAbsolutePath();
+		MappedZipFile result = mappings.get(key);
+		if (result == null) {
+			synchronized (JarFileRegistry.class) {
+				result = mappings.get(key);
+				if (result == null) {
+					result = new MappedZipFile(file);
+					mappings.put(key, result);
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * reads the resource from the shared jar
+	 * @return the resource's content or null if the jar doesn't contain it
+	 */
+	public static byte [] readEntry(File file, String resourceName) throws IOException {
+		SharedJar shared = acquire(file);
+		try {
+			return readEntry(shared.jar, resourceName);
+		} finally {
+			release(shared);
+		}
+	}
+	
+	/**
+	 * @return the names of the shared jar's entries, without the directories
+	 */
+	public static List<String> getEntryNames(File file) throws IOException {
+		SharedJar shared = acquire(file);
+		try {
+			return getEntryNames(shared.jar);
+		} finally {
+			release(shared);
+		}
+	}
+	
+	/**
+	 * closes all jars not in use (the others are closed when they aren't used anymore) and ends the pooled inflaters, 
+	 * the mappings are released by the garbage collector
+	 */
+	public static synchronized void closeAll() {
+		mappings.clear();
+		for (String key: jars.keySet()) {
+			SharedJar shared = jars.remove(key);
+			synchronized (shared) {
+				shared.closed = true;
+				if (shared.users == 0) {
+					close(shared.jar);
+				}
+			}
+		}
+		MappedZipFile.releaseInflaters();
+	}
+	
+	public static int getOpenJars() {
+		return jars.size();
+	}
+	
+	private static SharedJar getSharedJar(File file) throws IOException {
+		String key = file.getAbsolutePath();
+		SharedJar result = jars.get(key);
+		if (result == null) {
+			synchronized (JarFileRegistry.class) {
+				result = jars.get(key);
+				if (result == null) {
+					registerShutdownHook();
+					result = new SharedJar(new JarFile(file));
+					jars.put(key, result);
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * a jar closed by closeAll() after the lookup is replaced by a reopened one
+	 */
+	private static SharedJar acquire(File file) throws IOException {
+		while (true) {
+			SharedJar result = getSharedJar(file);
+			synchronized (result) {
+				if (!result.closed) {
+					result.users++;
+					return result;
+				}
+			}
+		}
+	}
+	
+	private static void release(SharedJar shared) {
+		synchronized (shared) {
+			shared.users--;
+			if (shared.closed && shared.users == 0) {
+				close(shared.jar);
+			}
+		}
+	}
+	
+	private static void close(JarFile jar) {
+		try {
+			jar.close();
+		} catch (IOException e) {
+			log.warn("Couldn't close "+jar.getName()+": "+e.getMessage());
+		}
+	}
+	
+	private static byte [] readEntry(JarFile jar, String resourceName) throws IOException {
+		ZipEntry entry = jar.getEntry(resourceName);
+		if (entry!=null && !entry.isDirectory()) {
+			return read(jar, entry);
+		} else {
+			return null;
+		}
+	}
+	
+	private static List<String> getEntryNames(JarFile jar) {
+		List<String> result = new ArrayList<String>();
+		Enumeration<? extends ZipEntry> entries = jar.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory()) {
+				result.add(entry.getName());
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * reads the entry into an array of the entry's size, if it is known
+	 */
+	private static byte [] read(ZipFile zip, ZipEntry entry) throws IOException {
+		InputStream data = zip.getInputStream(entry);
+		try {
+			long size = entry.getSize();
+			if (size >= 0 && size < Integer.MAX_VALUE) {
+				byte [] result = new byte[(int)size];
+				IOUtils.readFully(data, result);
+				return result;
+			} else {
+				return IOUtils.toByteArray(data);
+			}
+		} finally {
+			data.close();
+		}
+	}
+	
+	private static void registerShutdownHook() {
+		if (!shutdownHookRegistered) {
+			Runtime.getRuntime().addShutdownHook(new Thread("jasm jar registry shutdown") {
+				@Override
+				public void run() {
+					closeAll();
+				}
+			});
+			shutdownHookRegistered = true;
+		}
+	}
+	
+	private static class SharedJar {
+		
+		private JarFile jar;
+		private int users = 0;
+		private boolean closed = false;
+		
+		SharedJar(JarFile jar) {
+			this.jar = jar;
+		}
+	}
+	
+}
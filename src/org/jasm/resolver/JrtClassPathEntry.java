@@ -0,0 +1,116 @@
+package org.jasm.resolver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author ac
+ * Classpath entry for the classes of the running JDK (9 and later), read from the module image
+ * through the jrt:/ file system. The packages of all modules are indexed once on creation,
+ * so a class is looked up only in the module(s) containing its package.
+ */
+public class JrtClassPathEntry extends AbstractBinaryClassPathEntry implements IPackageListingClassPathEntry {
+	
+	private static Logger log = LoggerFactory.getLogger(JrtClassPathEntry.class);
+	
+	private FileSystem fileSystem;
+	private Map<String, List<String>> modulesByPackage;
+	
+	private JrtClassPathEntry(FileSystem fileSystem) throws IOException {
+		this.fileSystem = fileSystem;
+		this.modulesByPackage = createIndex();
+	}
+	
+	/**
+	 *
+	 * @return the entry or null, if the running JDK has no module image
+	 */
+	public static JrtClassPathEntry create() {
+		FileSystem fileSystem;
+		try {
+			fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+		} catch (RuntimeException e) {
+			log.debug("jrt file system not available: "+e.getMessage());
+			return null;
+		}
+		try {
+			long start = System.currentTimeMillis();
+			JrtClassPathEntry result = new JrtClassPathEntry(fileSystem);
+			log.debug("Indexed "+result.modulesByPackage.size()+" runtime packages in "+(System.currentTimeMillis()-start)+" ms");
+			return result;
+		} catch (IOException e) {
+			log.warn("Couldn't index the jrt file system: "+e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * /packages contains a directory for every package with a link for every module containing it
+	 */
+	private Map<String, List<String>> createIndex() throws IOException {
+		Map<String, List<String>> result = new HashMap<String, List<String>>();
+		DirectoryStream<Path> packages = Files.newDirectoryStream(fileSystem.getPath("/packages"));
+		try {
+			for (Path pack: packages) {
+				List<String> modules = new ArrayList<String>(1);
+				DirectoryStream<Path> links = Files.newDirectoryStream(pack);
+				try {
+					for (Path module: links) {
+						modules.add(module.getFileName().toString());
+					}
+				} finally {
+					links.close();
+				}
+				result.put(pack.getFileName().toString().replace('.', '/'), modules);
+			}
+		} finally {
+			packages.close();
+		}
+		return result;
+	}
+	
+	@Override
+	public byte[] findBytes(String resourceName) {
+		List<String> modules = modulesByPackage.get(getPackage(resourceName));
+		if (modules == null) {
+			return null;
+		}
+		for (String module: modules) {
+			try {
+				return Files.readAllBytes(fileSystem.getPath("/modules", module, resourceName));
+			} catch (NoSuchFileException e) {
+				//try the next module
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public Set<String> getPackages() {
+		return Collections.unmodifiableSet(modulesByPackage.keySet());
+	}
+	
+	@Override
+	protected String getName() {
+		return "jrt:/";
+	}
+	
+}
@@ -0,0 +1,67 @@
+package org.jasm.resolver;
+
+/**
+ *
+ * @author ac
+ * Hash key of a field or method, optionally qualified by its class. The hash code is
+ * computed once, so the key can be looked up repeatedly without concatenating strings.
+ */
+public final class MemberKey {
+	
+	private final String className;
+	private final String name;
+	private final String descriptor;
+	private final int hash;
+	
+	public MemberKey(String name, String descriptor) {
+		this(null, name, descriptor);
+	}
+	
+	public MemberKey(String className, String name, String descriptor) {
+		this.className = className;
+		this.name = name;
+		this.descriptor = descriptor;
+		int h = (className == null)?0:className.hashCode();
+		h = 31*h+name.hashCode();
+		h = 31*h+descriptor.hashCode();
+		this.hash = h;
+	}
+	
+	public String getClassName() {
+		return className;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public String getDescriptor() {
+		return descriptor;
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof MemberKey)) {
+			return false;
+		}
+		MemberKey other = (MemberKey)obj;
+		return hash == other.hash
+				&& name.equals(other.name)
+				&& descriptor.equals(other.descriptor)
+				&& (className == null?other.className == null:className.equals(other.className));
+	}
+	
+	@Override
+	public String toString() {
+		return ((className == null)?"":className+".")+name+"@"+descriptor;
+	}
+	
+}
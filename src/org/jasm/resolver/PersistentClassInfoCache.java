@@ -0,0 +1,304 @@
+package org.jasm.resolver;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jasm.bytebuffer.GrowableByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.ModifiedUtf8;
+import org.jasm.bytebuffer.NioByteBuffer;
+import org.jasm.bytebuffer.Utf8String;
+import org.jasm.item.modifier.ClassModifier;
+import org.jasm.item.modifier.FieldModifier;
+import org.jasm.item.modifier.MethodModifier;
+import org.jasm.map.StringPool;
+import org.jasm.type.descriptor.MethodDescriptor;
+import org.jasm.type.descriptor.TypeDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author ac
+ * The class infos of a jar file, stored in a cache directory between runs. The cache file
+ * is keyed by the jar's path, size and modification time and is rebuilt whenever one of them changes.
+ * It is memory mapped and every class info is decoded only when it is requested.
+ *
+ * Layout: magic, version, jar path, jar size, jar modification time, number of classes,
+ * then for every class its name, the length of its record and the record with modifier,
+ * super class, interfaces, fields and methods. Strings are stored as in the class files.
+ * Class files which couldn't be read are stored with a length of -1 and are looked up in the jar.
+ */
+public class PersistentClassInfoCache {
+	
+	private static final int MAGIC = 0x4A41534D;
+	private static final int VERSION = 1;
+	
+	private static Logger log = LoggerFactory.getLogger(PersistentClassInfoCache.class);
+	
+	private IByteBuffer data;
+	private Map<String, Long> offsets;
+	private Set<String> unreadable;
+	
+	private PersistentClassInfoCache(IByteBuffer data, Map<String, Long> offsets, Set<String> unreadable) {
+		this.data = data;
+		this.offsets = offsets;
+		this.unreadable = unreadable;
+	}
+	
+	/**
+	 * loads the cache of the jar file from the cache directory or builds and stores it
+	 * @param classResources the names of all class files inside the jar
+	 */
+	static PersistentClassInfoCache open(File cacheDir, File jarFile, AbstractBinaryClassPathEntry entry, List<String> classResources) throws IOException {
+		File cacheFile = getCacheFile(cacheDir, jarFile);
+		if (cacheFile.isFile()) {
+			PersistentClassInfoCache result = load(cacheFile, jarFile);
+			if (result != null) {
+				return result;
+			}
+		}
+		long start = System.currentTimeMillis();
+		GrowableByteBuffer buffer = build(jarFile, entry, classResources);
+		store(cacheDir, cacheFile, buffer);
+		log.debug("Created cache of "+jarFile.getAbsolutePath()+" in "+(System.currentTimeMillis()-start)+" ms");
+		PersistentClassInfoCache result = load(cacheFile, jarFile);
+		if (result == null) {
+			//e.g. the jar was modified while building the cache
+			throw new IOException("the created cache of "+jarFile.getAbsolutePath()+" is already outdated");
+		}
+		return result;
+	}
+	
+	public ExternalClassInfo findClass(String className) {
+		Long offset = offsets.get(className);
+		if (offset == null) {
+			return null;
+		}
+		Reader reader = new Reader(offset);
+		ExternalClassInfo result = new ExternalClassInfo();
+		result.name = StringPool.intern(className);
+		result.modifier = new ClassModifier(reader.readUnsignedShort());
+		String superName = reader.readString();
+		if (superName.length()>0) {
+			result.superName = superName;
+		}
+		int count = reader.readUnsignedShort();
+		for (int i=0;i<count; i++) {
+			result.interfacesNames.add(reader.readString());
+		}
+		count = reader.readUnsignedShort();
+		for (int i=0;i<count; i++) {
+			FieldInfo info = new FieldInfo();
+			info.setModifier(new FieldModifier(reader.readUnsignedShort()));
+			info.setName(reader.readString());
+			info.setDescriptor(new TypeDescriptor(reader.readString()));
+			info.setParent(result);
+			result.fields.add(info);
+		}
+		count = reader.readUnsignedShort();
+		for (int i=0;i<count; i++) {
+			MethodInfo info = new MethodInfo();
+			info.setModifier(new MethodModifier(reader.readUnsignedShort()));
+			info.setName(reader.readString());
+			info.setDescriptor(new MethodDescriptor(reader.readString()));
+			info.setParent(result);
+			result.methods.add(info);
+		}
+		result.updateMetaData();
+		return result;
+	}
+	
+	public boolean contains(String className) {
+		return offsets.containsKey(className);
+	}
+	
+	/**
+	 * @return true if the jar contains a class file of this name which couldn't be read into the cache
+	 */
+	public boolean isUnreadable(String className) {
+		return unreadable.contains(className);
+	}
+	
+	public int getSize() {
+		return offsets.size();
+	}
+	
+	static File getCacheFile(File cacheDir, File jarFile) {
+		String path = jarFile.getAbsolutePath();
+		return new File(cacheDir, jarFile.getName()+"-"+Integer.toHexString(path.hashCode())+".jcache");
+	}
+	
+	/**
+	 * reads the header and the class names with a plain read, the file is mapped only when they are valid, 
+	 * outdated or corrupt files are replaced by open() and mustn't be mapped
+	 */
+	private static PersistentClassInfoCache load(File cacheFile, File jarFile) throws IOException {
+		Map<String, Long> offsets = null;
+		Set<String> unreadable = new HashSet<String>();
+		long size = cacheFile.length();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			Utf8String path = readUTF8(in);
+			long offset = 8+path.getLength();
+			if (!path.getValue().equals(jarFile.getAbsolutePath())
+					|| in.readLong() != jarFile.length()
+					|| in.readLong() != jarFile.lastModified()) {
+				log.debug(cacheFile.getAbsolutePath()+" is outdated");
+				return null;
+			}
+			int count = in.readInt();
+			offset+=20;
+			offsets = new HashMap<String, Long>(count*2);
+			for (int i=0;i<count; i++) {
+				Utf8String name = readUTF8(in);
+				offset+=name.getLength();
+				int length = in.readInt();
+				if (length < 0) {
+					unreadable.add(name.getValue());
+					offset+=4;
+				} else {
+					//skipping doesn't stop at the end of a file
+					if (offset+4+length > size || in.skipBytes(length) != length) {
+						throw new EOFException("truncated record of "+name.getValue());
+					}
+					offsets.put(name.getValue(), offset+4);
+					offset+=4+length;
+				}
+			}
+		} catch (EOFException | RuntimeException e) {
+			log.warn("Ignoring corrupt cache file "+cacheFile.getAbsolutePath()+": "+e.getMessage());
+			return null;
+		} finally {
+			in.close();
+		}
+		return new PersistentClassInfoCache(NioByteBuffer.map(cacheFile), offsets, unreadable);
+	}
+	
+	private static Utf8String readUTF8(DataInputStream in) throws IOException {
+		int length = in.readUnsignedShort();
+		byte [] data = new byte[length];
+		in.readFully(data);
+		Utf8String result = new Utf8String();
+		result.setLength(length+2);
+		result.setValue(ModifiedUtf8.decode(data, 0, length));
+		return result;
+	}
+	
+	private static GrowableByteBuffer build(File jarFile, AbstractBinaryClassPathEntry entry, List<String> classResources) {
+		GrowableByteBuffer target = new GrowableByteBuffer(64*1024);
+		target.writeInt(0, MAGIC);
+		target.writeInt(4, VERSION);
+		target.writeUTF8(8, jarFile.getAbsolutePath());
+		long countOffset = target.getSize()+16;
+		target.writeLong(target.getSize(), jarFile.length());
+		target.writeLong(target.getSize(), jarFile.lastModified());
+		target.writeInt(countOffset, 0);
+		int count = 0;
+		for (String resource: classResources) {
+			ExternalClassInfo info = null;
+			try {
+				IByteBuffer source = entry.findBuffer(resource);
+				if (source != null) {
+					info = ClassHeaderReader.read(source);
+				}
+			} catch (RuntimeException e) {
+				log.debug("Couldn't read "+resource+" from "+jarFile.getAbsolutePath()+": "+e.getMessage());
+			}
+			if (info != null && resource.equals(info.getName()+".class")) {
+				write(target, info);
+			} else {
+				target.writeUTF8(target.getSize(), resource.substring(0, resource.length()-".class".length()));
+				target.writeInt(target.getSize(), -1);
+			}
+			count++;
+		}
+		target.writeInt(countOffset, count);
+		return target;
+	}
+	
+	private static void write(GrowableByteBuffer target, ExternalClassInfo info) {
+		target.writeUTF8(target.getSize(), info.getName());
+		long lengthOffset = target.getSize();
+		target.writeInt(lengthOffset, 0);
+		target.writeUnsignedShort(target.getSize(), info.getModifier().getValue());
+		target.writeUTF8(target.getSize(), (info.getSuperName() == null)?"":info.getSuperName());
+		target.writeUnsignedShort(target.getSize(), info.getInterfacesNames().size());
+		for (String name: info.getInterfacesNames()) {
+			target.writeUTF8(target.getSize(), name);
+		}
+		target.writeUnsignedShort(target.getSize(), info.getFields().size());
+		for (FieldInfo field: info.getFields()) {
+			target.writeUnsignedShort(target.getSize(), field.getModifier().getValue());
+			target.writeUTF8(target.getSize(), field.getName());
+			target.writeUTF8(target.getSize(), field.getDescriptor().getValue());
+		}
+		target.writeUnsignedShort(target.getSize(), info.getMethods().size());
+		for (MethodInfo method: info.getMethods()) {
+			target.writeUnsignedShort(target.getSize(), method.getModifier().getValue());
+			target.writeUTF8(target.getSize(), method.getName());
+			target.writeUTF8(target.getSize(), method.getDescriptor().getValue());
+		}
+		target.writeInt(lengthOffset, (int)(target.getSize()-lengthOffset-4));
+	}
+	
+	/**
+	 * writes into a temporary file first, so concurrent runs never see half written caches
+	 */
+	private static void store(File cacheDir, File cacheFile, GrowableByteBuffer buffer) throws IOException {
+		if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+			throw new IOException("couldn't create cache directory "+cacheDir.getAbsolutePath());
+		}
+		File tmp = File.createTempFile(cacheFile.getName(), ".tmp", cacheDir);
+		try {
+			OutputStream out = new FileOutputStream(tmp);
+			try {
+				buffer.writeTo(out);
+			} finally {
+				out.close();
+			}
+			Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tmp.delete();
+		}
+	}
+	
+	private class Reader {
+		
+		private long offset;
+		
+		Reader(long offset) {
+			this.offset = offset;
+		}
+		
+		int readUnsignedShort() {
+			int result = data.readUnsignedShort(offset);
+			offset+=2;
+			return result;
+		}
+		
+		String readString() {
+			Utf8String result = data.readUTF8(offset);
+			offset+=result.getLength();
+			return StringPool.intern(result.getValue());
+		}
+		
+	}
+	
+}
@@ -2,19 +2,12 @@ package org.jasm.resolver;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
-import java.util.jar.JarEntry;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipException;
-import java.util.zip.ZipFile;
+import java.util.HashSet;
+import java.util.Set;
 
-import org.apache.commons.io.IOUtils;
-
-public class ZipFileClassPathEntry extends AbstractBinaryClassPathEntry {
+public class ZipFileClassPathEntry extends AbstractBinaryClassPathEntry implements IPackageListingClassPathEntry {
 	
 	private File zipFile;
-	private ZipFile zip;
 	
 	public ZipFileClassPathEntry(File zipFile) {
 		this.zipFile = zipFile;
@@ -23,27 +16,25 @@ public class ZipFileClassPathEntry extends AbstractBinaryClassPathEntry {
 	@Override
 	public byte[] findBytes(String resourceName) {
 		try {
-			createZipFile();
-			ZipEntry entry = zip.getEntry(resourceName);
-			if (entry!=null && !entry.isDirectory()) {
-				InputStream data = zip.getInputStream(entry);
-				byte[] result = IOUtils.toByteArray(data);
-				data.close();
-				return result;
-			} else {
-				return null;
-			}
+			return JarFileRegistry.readEntry(zipFile, resourceName);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
 	
-	private synchronized void createZipFile() throws ZipException, IOException {
-		if (zip == null) {
-			zip = new ZipFile(zipFile);
+	@Override
+	public Set<String> getPackages() {
+		try {
+			Set<String> result = new HashSet<String>();
+			for (String name: JarFileRegistry.getEntryNames(zipFile)) {
+				result.add(getPackage(name));
+			}
+			return result;
+		} catch (IOException e) {
+			return null;
 		}
 	}
-
+	
 	@Override
 	protected String getName() {
 		return zipFile.getName();
@@ -7,7 +7,9 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -15,13 +17,21 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.OptionBuilder;
-import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
 import org.jasm.environment.Environment;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.item.constantpool.AbstractConstantPoolEntry;
+import org.jasm.item.constantpool.ClassInfo;
+import org.jasm.item.constantpool.ConstantPool;
+import org.jasm.item.constantpool.IDescriptorReferencingEntry;
+import org.jasm.map.StringPool;
+import org.jasm.resolver.AbstractJarClassPathEntry;
 import org.jasm.resolver.ClassInfoResolver;
 import org.jasm.resolver.ClassLoaderClasspathEntry;
 import org.jasm.resolver.ClazzClassPathEntry;
 import org.jasm.resolver.IClassPathEntry;
 import org.jasm.resolver.JarFileClassPathEntry;
+import org.jasm.resolver.JrtClassPathEntry;
 import org.jasm.tools.print.ConsolePrinter;
 import org.jasm.tools.print.IPrinter;
 import org.jasm.tools.resource.FilterResourceCollection;
@@ -85,10 +95,9 @@ public class Assembler extends AbstractTool {
 		if (parent.exists()) {
 			try {
 				FileOutputStream out = new FileOutputStream(target);
-				byte [] data = new byte[task.getClazz().getLength()];
-				ByteArrayByteBuffer bbuf = new ByteArrayByteBuffer(data);
+				GrowableByteBuffer bbuf = new GrowableByteBuffer();
 				task.getClazz().write(bbuf, 0);
-				out.write(data);
+				bbuf.writeTo(out);
 				out.close();
 			} catch (FileNotFoundException e) {
 				printer.printError("couldn't write "+target.getAbsolutePath());
@@ -181,14 +190,19 @@ public class Assembler extends AbstractTool {
 		boolean twoStages = Environment.getBooleanValue("jasm.dotwostages");
 		if (number == 0) {
 			t = System.currentTimeMillis();
+			if (Environment.getBooleanValue("jasm.stringpool")) {
+				StringPool.setShared(new StringPool());
+			}
 			assemble();
 			if (!verificationEnabled || !twoStages) {
 				printer.printInfo("Created "+successCounter+" class files in "+(System.currentTimeMillis()-t)/1000+" secs");
+				releaseStringPool();
 			}
 			return true;
 		} else if (number == 1) {
 			verifyAndWrite();
 			printer.printInfo("Created "+successCounter+" class files in "+(System.currentTimeMillis()-t)/1000+" secs");
+			releaseStringPool();
 			return true;
 		} else {
 			throw new IllegalArgumentException(number+"");
@@ -196,6 +210,18 @@ public class Assembler extends AbstractTool {
 		
 	}
 	
+	private void releaseStringPool() {
+		StringPool pool = StringPool.getShared();
+		if (pool != null) {
+			printer.printInfo("String pool: "+pool.getSize()+" strings, "+pool.getDeduplicatedStrings()+" duplicates dropped, approx. "+pool.getDeduplicatedBytes()/1024+" KB saved");
+			StringPool.setShared(null);
+		}
+	}
+	
+	private void printResolverStatus(ClassInfoResolver resolver) {
+		printer.printInfo("Class cache: "+resolver.getCacheHits()+" hits, "+resolver.getCacheMisses()+" misses, "+resolver.getEvictions()+" evictions");
+	}
+	
 	private void assemble() {
 		
 		boolean useThreadPool = Environment.getBooleanValue("jasm.usethreadpool");
@@ -233,33 +259,112 @@ public class Assembler extends AbstractTool {
 				task.run();
 			}
 		}
+		if (resolver != null) {
+			printResolverStatus(resolver);
+		}
 		
 	}
 	
 	private ClassInfoResolver createClassInfoResolver() {
 		boolean twoStages = Environment.getBooleanValue("jasm.dotwostages");
 		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.setMaxCacheSize(Environment.getIntValue("jasm.classpath.cachesize"));
 		if (twoStages) {
 			for (AssemblerTask task: survivors) {
 				task.getClazz().setResolver(resolver);
 				resolver.add(new ClazzClassPathEntry(task.getClazz()));
 			}
 		}
+		String cacheDir = Environment.getStringValue("jasm.classpath.cachedir").trim();
 		for (IClassPathEntry entry: classpath) {
+			if (cacheDir.length()>0 && entry instanceof AbstractJarClassPathEntry) {
+				((AbstractJarClassPathEntry)entry).setCacheDirectory(new File(cacheDir));
+			}
 			resolver.add(entry);
 		}
 		if (Environment.getBooleanValue("jasm.classpath.useruntime")) {
-			File rtJar = getRuntimeJar();
-			if (rtJar != null) {
-				resolver.add(new JarFileClassPathEntry(getRuntimeJar()));
+			//JDK 9 and later have no rt.jar but a module image
+			JrtClassPathEntry jrtEntry = JrtClassPathEntry.create();
+			if (jrtEntry != null) {
+				resolver.add(jrtEntry);
+			} else {
+				File rtJar = getRuntimeJar();
+				if (rtJar != null) {
+					JarFileClassPathEntry rtEntry = new JarFileClassPathEntry(rtJar);
+					if (cacheDir.length()>0) {
+						rtEntry.setCacheDirectory(new File(cacheDir));
+					}
+					resolver.add(rtEntry);
+				}
 			}
 			//resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
 			
 		}
+		if (twoStages && Environment.getBooleanValue("jasm.classpath.warmup")) {
+			warmUp(resolver);
+		}
 		
 		return resolver;
 	}
 	
+	/**
+	 * loads the classes referenced by the assembled classes before the verification
+	 */
+	private void warmUp(ClassInfoResolver resolver) {
+		long start = System.currentTimeMillis();
+		Set<String> classNames = new HashSet<String>();
+		for (AssemblerTask task: survivors) {
+			collectReferencedClasses(task.getClazz(), classNames);
+		}
+		//the assembled classes are resolved by the verification itself
+		for (AssemblerTask task: survivors) {
+			classNames.remove(task.getClazz().getThisClass().getClassName());
+		}
+		int found = resolver.prefetch(classNames, Environment.getIntValue("jasm.threadpoolsize"));
+		printer.printInfo("Warmed up the class cache with "+found+" of "+classNames.size()+" referenced classes in "+(System.currentTimeMillis()-start)+" ms");
+	}
+	
+	private void collectReferencedClasses(Clazz clazz, Set<String> result) {
+		ConstantPool pool = clazz.getConstantPool();
+		//longs and doubles take two slots
+		for (int i=0;i<pool.getSize(); i+=pool.getItemSizeInList(pool.get(i))) {
+			AbstractConstantPoolEntry entry = pool.get(i);
+			if (entry instanceof ClassInfo) {
+				String name = ((ClassInfo)entry).getClassName();
+				if (name.startsWith("[")) {
+					collectDescriptorClasses(name, result);
+				} else {
+					result.add(name);
+				}
+			} else if (entry instanceof IDescriptorReferencingEntry) {
+				for (String descriptor: ((IDescriptorReferencingEntry)entry).getReferencedDescriptors()) {
+					collectDescriptorClasses(descriptor, result);
+				}
+			}
+		}
+		for (int i=0;i<clazz.getFields().getSize(); i++) {
+			collectDescriptorClasses(clazz.getFields().get(i).getDescriptor().getValue(), result);
+		}
+		for (int i=0;i<clazz.getMethods().getSize(); i++) {
+			collectDescriptorClasses(clazz.getMethods().get(i).getDescriptor().getValue(), result);
+		}
+	}
+	
+	/**
+	 * adds the classes of a type or method descriptor, array classes by their element class
+	 */
+	private void collectDescriptorClasses(String descriptor, Set<String> result) {
+		int index = descriptor.indexOf('L');
+		while (index >= 0) {
+			int end = descriptor.indexOf(';', index);
+			if (end < 0) {
+				return;
+			}
+			result.add(descriptor.substring(index+1, end));
+			index = descriptor.indexOf('L', end);
+		}
+	}
+	
 	private void verifyAndWrite() {
 		
 		//Creating class resolver
@@ -287,6 +392,7 @@ public class Assembler extends AbstractTool {
 				task.run();
 			}
 		}
+		printResolverStatus(resolver);
 	}
 	
 	
@@ -3,9 +3,13 @@ package org.jasm.tools.resource;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 
-public class FileResource implements Resource {
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.NioByteBuffer;
+
+public class FileResource implements MappableResource {
 	
 	private File f;
 	
@@ -30,4 +34,13 @@ public class FileResource implements Resource {
 		}
 	}
 
+	@Override
+	public IByteBuffer map() {
+		try {
+			return NioByteBuffer.map(f);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 }
@@ -5,15 +5,24 @@ import java.io.InputStream;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
-public class JarEntryResource implements Resource {
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.MappedZipFile;
+
+public class JarEntryResource implements MappableResource {
 	
 	private JarFile file;
 	private JarEntry entry;
+	private MappedZipFile mappedFile;
 	
 	public JarEntryResource(JarFile file, JarEntry entry) {
 		this.file = file;
 		this.entry = entry;
 	}
+	
+	public JarEntryResource(JarFile file, MappedZipFile mappedFile, JarEntry entry) {
+		this(file, entry);
+		this.mappedFile = mappedFile;
+	}
 
 	@Override
 	public String getName() {
@@ -29,4 +38,13 @@ public class JarEntryResource implements Resource {
 		}
 	}
 
+	@Override
+	public IByteBuffer map() {
+		if (mappedFile != null) {
+			return mappedFile.getStoredEntry(entry.getName());
+		} else {
+			return null;
+		}
+	}
+
 }
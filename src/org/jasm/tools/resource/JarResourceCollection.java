@@ -1,22 +1,33 @@
 package org.jasm.tools.resource;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Enumeration;
 import java.util.NoSuchElementException;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipFile;
 
+import org.jasm.bytebuffer.MappedZipFile;
+
 public class JarResourceCollection implements ResourceCollection {
 	
 	private JarFile root;
+	private MappedZipFile mappedRoot;
 	
 	public JarResourceCollection(JarFile root) {
 		this.root = root;
+		try {
+			mappedRoot = new MappedZipFile(new File(root.getName()));
+		} catch (IOException e) {
+			//stored entries will be read through the jar file
+			mappedRoot = null;
+		}
 	}
 	
 	@Override
 	public Enumeration<Resource> elements() {
-		return new JarEntryEnumeration(root);
+		return new JarEntryEnumeration(root, mappedRoot);
 	}
 
 }
@@ -24,12 +35,14 @@ public class JarResourceCollection implements ResourceCollection {
 class JarEntryEnumeration implements Enumeration<Resource> {
 	
 	private JarFile root;
+	private MappedZipFile mappedRoot;
 	private Enumeration<JarEntry> entries;
 	
 	private JarEntry currentEntry = null;
 	
-	JarEntryEnumeration(JarFile jarFile) {
+	JarEntryEnumeration(JarFile jarFile, MappedZipFile mappedRoot) {
 		this.root = jarFile;
+		this.mappedRoot = mappedRoot;
 		entries = jarFile.entries();
 	}
 
@@ -59,7 +72,7 @@ class JarEntryEnumeration implements Enumeration<Resource> {
 		}
 		JarEntry entry = currentEntry;
 		currentEntry = null;
-		return new JarEntryResource(root, entry);
+		return new JarEntryResource(root, mappedRoot, entry);
 	}
 	
 }
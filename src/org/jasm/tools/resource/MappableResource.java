@@ -0,0 +1,17 @@
+package org.jasm.tools.resource;
+
+import org.jasm.bytebuffer.IByteBuffer;
+
+/**
+ * 
+ * @author ac
+ * Resources, which content can be accessed without copying it into a byte array
+ */
+public interface MappableResource extends Resource {
+	
+	/**
+	 * @return the content or null if the resource can't be mapped 
+	 */
+	public IByteBuffer map();
+	
+}
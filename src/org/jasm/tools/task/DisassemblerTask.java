@@ -8,9 +8,11 @@ import java.util.Properties;
 
 import org.apache.commons.io.IOUtils;
 import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
 import org.jasm.bytebuffer.print.PrettyPrinter;
 import org.jasm.environment.Environment;
 import org.jasm.item.clazz.Clazz;
+import org.jasm.tools.resource.MappableResource;
 import org.jasm.tools.resource.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,11 +43,15 @@ public class DisassemblerTask implements Task {
 				Environment.initFrom(env);
 			}
 			
-			source = this.resource.createInputStream();
-			
-			byte [] data = IOUtils.toByteArray(source);
-			
-			ByteArrayByteBuffer bbuf = new ByteArrayByteBuffer(data);
+			IByteBuffer bbuf = null;
+			if (this.resource instanceof MappableResource) {
+				bbuf = ((MappableResource)this.resource).map();
+			}
+			if (bbuf == null) {
+				source = this.resource.createInputStream();
+				byte [] data = IOUtils.toByteArray(source);
+				bbuf = new ByteArrayByteBuffer(data);
+			}
 			
 			Clazz clazz = new Clazz();
 			clazz.read(bbuf, 0L);
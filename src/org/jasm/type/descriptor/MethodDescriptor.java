@@ -3,6 +3,8 @@ package org.jasm.type.descriptor;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.jasm.map.StringPool;
+
 public class MethodDescriptor {
 	
 	private List<TypeDescriptor> parameters = new ArrayList<>();
@@ -11,7 +13,7 @@ public class MethodDescriptor {
 	private String value = null;
 	
 	public MethodDescriptor(String descriptor) throws IllegalDescriptorException {
-		this.value = descriptor;
+		this.value = StringPool.intern(descriptor);
 		if (!descriptor.startsWith("(")) {
 			throw new IllegalDescriptorException("illegal method descriptor "+descriptor);
 		} else {
@@ -47,7 +49,7 @@ public class MethodDescriptor {
 		} else {
 			buf.append("V");
 		}
-		value = buf.toString();
+		value = StringPool.intern(buf.toString());
 	}
 	
 	private void parseParameters(String s) throws IllegalDescriptorException {
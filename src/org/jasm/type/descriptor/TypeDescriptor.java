@@ -1,6 +1,7 @@
 package org.jasm.type.descriptor;
 
 import org.jasm.item.utils.IdentifierUtils;
+import org.jasm.map.StringPool;
 import org.jasm.resolver.ExternalClassInfo;
 
 public class TypeDescriptor {
@@ -24,7 +25,7 @@ public class TypeDescriptor {
 	private String descriptor;
 	
 	public TypeDescriptor(String descriptor) throws IllegalDescriptorException {
-		this.descriptor = descriptor;
+		this.descriptor = StringPool.intern(descriptor);
 		isByte = false;
 		isCharacter = false;
 		isDouble = false;
@@ -49,7 +50,7 @@ public class TypeDescriptor {
 		} else if (descriptor.equals("J")) {
 			isLong = true;
 		} else if (descriptor.startsWith("L") & descriptor.endsWith(";")) {
-			className = descriptor.substring(1,descriptor.length()-1);
+			className = StringPool.intern(descriptor.substring(1,descriptor.length()-1));
 			if (IdentifierUtils.isValidJasmClassName(className)) {
 				isObject = true;
 			} else {
@@ -61,7 +62,7 @@ public class TypeDescriptor {
 			if (descriptor.length()<2) {
 				throw new IllegalDescriptorException("illegal type descriptor: "+descriptor);
 			}
-			className = descriptor;
+			className = this.descriptor;
 			componentType = new TypeDescriptor(descriptor.substring(1, descriptor.length()));
 		} else if (descriptor.equals("S")) {
 			isShort = true;
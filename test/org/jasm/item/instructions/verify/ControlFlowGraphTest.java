@@ -0,0 +1,102 @@
+package org.jasm.item.instructions.verify;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.environment.Environment;
+import org.jasm.item.attribute.CodeAttributeContent;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.item.clazz.Method;
+import org.jasm.item.instructions.Instructions;
+import org.jasm.resolver.ClassInfoResolver;
+import org.jasm.resolver.ClassLoaderClasspathEntry;
+import org.junit.Test;
+
+public class ControlFlowGraphTest {
+	
+	/**
+	 * the numbers of instructions handled by the per instruction worklist used before the basic blocks
+	 */
+	private static final int OLD_LOOP_ITERATIONS = 19;
+	private static final int OLD_SWITCH_ITERATIONS = 15;
+	private static final int OLD_TRY_CATCH_ITERATIONS = 22;
+	
+	@Test
+	public void testLoop() throws IOException {
+		Verifier verifier = inferTypes("loop");
+		//the loop condition follows the initialization, the loop's exit comes before its body
+		assertBlocks(verifier.createControlFlowGraph(), new int [][] {{0,3}, {4,6}, {17,18}, {7,10}, {11,14}, {15,16}});
+		//the back edge doesn't change the frame at the loop's head, so every block is handled once
+		assertEquals(6, verifier.getInferenceIterations());
+		assertEquals(OLD_LOOP_ITERATIONS, verifier.getInterpretedInstructions());
+	}
+	
+	@Test
+	public void testSwitch() throws IOException {
+		Verifier verifier = inferTypes("switchMethod");
+		//the depth first search enters the cases in order, so the reverse postorder lists them backwards, the join block comes last
+		assertBlocks(verifier.createControlFlowGraph(), new int [][] {{0,1}, {11,12}, {8,10}, {5,7}, {2,4}, {13,14}});
+		assertEquals(6, verifier.getInferenceIterations());
+		assertEquals(OLD_SWITCH_ITERATIONS, verifier.getInterpretedInstructions());
+	}
+	
+	@Test
+	public void testTryCatch() throws IOException {
+		Verifier verifier = inferTypes("tryCatch");
+		//the try block is no block of its own, the handlers are entered from every covered instruction
+		assertBlocks(verifier.createControlFlowGraph(), new int [][] {{0,8}, {9,14}, {20,21}, {15,19}});
+		assertEquals(4, verifier.getInferenceIterations());
+		assertEquals(OLD_TRY_CATCH_ITERATIONS, verifier.getInterpretedInstructions());
+	}
+	
+	private void assertBlocks(ControlFlowGraph cfg, int [][] expected) {
+		assertEquals(expected.length, cfg.getBlockCount());
+		for (int b=0;b<expected.length; b++) {
+			assertEquals(expected[b][0], cfg.getStart(b));
+			assertEquals(expected[b][1], cfg.getEnd(b));
+			for (int i=cfg.getStart(b);i<=cfg.getEnd(b); i++) {
+				assertEquals(b, cfg.getBlock(i));
+			}
+		}
+	}
+	
+	private Verifier inferTypes(String methodName) throws IOException {
+		Clazz clazz = readClass("org/jasm/test/testclass/ControlFlowMethods");
+		Instructions instrs = null;
+		for (Method method: clazz.getDescendants(Method.class)) {
+			if (method.getName().getValue().equals(methodName)) {
+				instrs = method.getDescendants(CodeAttributeContent.class).get(0).getInstructions();
+			}
+		}
+		Verifier verifier = new Verifier();
+		verifier.setParent(instrs);
+		verifier.verifyStage1();
+		boolean force = Environment.getBooleanValue("jasm.forcestackmaps");
+		Environment.setBooleanValue("jasm.forcestackmaps", true);
+		try {
+			verifier.verify();
+		} finally {
+			Environment.setBooleanValue("jasm.forcestackmaps", force);
+		}
+		assertFalse(verifier.isHasErrors());
+		return verifier;
+	}
+	
+	private Clazz readClass(String name) throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream(name+".class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0L);
+		clazz.resolve();
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		clazz.setResolver(resolver);
+		return clazz;
+	}
+	
+}
@@ -145,4 +145,34 @@ public class ByteArrayBufferTest {
 		
 	}
 	
+	@Test
+	public void testBigEndianLayout() {
+		byte[] data = new byte[16];
+		ByteArrayByteBuffer b = new ByteArrayByteBuffer(data);
+		
+		b.writeUnsignedShort(0, 0xCAFE);
+		assertEquals((byte)0xCA, data[0]);
+		assertEquals((byte)0xFE, data[1]);
+		
+		b.writeUnsignedInt(2, 0xCAFEBABEL);
+		assertEquals((byte)0xCA, data[2]);
+		assertEquals((byte)0xFE, data[3]);
+		assertEquals((byte)0xBA, data[4]);
+		assertEquals((byte)0xBE, data[5]);
+		assertEquals(0xCAFEBABEL, b.readUnsignedInt(2));
+		
+		b.writeLong(8, 0x0102030405060708L);
+		for (int i=0;i<8; i++) {
+			assertEquals(i+1, data[8+i]);
+		}
+		assertEquals(0x0102030405060708L, b.readLong(8));
+		
+		try {
+			b.readUnsignedShort(15);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+			
+		}
+	}
+	
 }
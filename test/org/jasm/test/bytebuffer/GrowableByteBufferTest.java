@@ -0,0 +1,72 @@
+package org.jasm.test.bytebuffer;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
+import org.jasm.item.clazz.Clazz;
+import org.junit.Test;
+
+public class GrowableByteBufferTest {
+	
+	@Test
+	public void testGrowing() {
+		GrowableByteBuffer b = new GrowableByteBuffer(1);
+		assertEquals(0, b.getSize());
+		for (int i=0;i<100; i++) {
+			b.writeInt(i*4, i);
+		}
+		assertEquals(400, b.getSize());
+		for (int i=0;i<100; i++) {
+			assertEquals(i, b.readInt(i*4));
+		}
+		
+		b.writeUnsignedShort(10, 0xCAFE);
+		assertEquals(400, b.getSize());
+		assertEquals(0xCAFE, b.readUnsignedShort(10));
+		
+		b.writeLong(400, -5L);
+		assertEquals(408, b.getSize());
+		assertEquals(-5L, b.readLong(400));
+		
+		String st = "Hello World mit Ümläten";
+		b.writeUTF8(408, st);
+		assertEquals(st, b.readUTF8(408).getValue());
+		assertEquals(b.getSize(), b.toByteArray().length);
+		
+		try {
+			b.readInt(b.getSize()-2);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+			
+		}
+	}
+	
+	@Test
+	public void testWriteClasses() throws IOException {
+		doTestWriteClass("org/jasm/test/testclass/HelloWorld.class");
+		doTestWriteClass("org/jasm/test/testclass/ClassWithManyBranches.class");
+		doTestWriteClass("org/jasm/test/testclass/AnnotatedClass.class");
+		doTestWriteClass("org/jasm/test/testclass/InvokeDynamicClass.class");
+	}
+	
+	private void doTestWriteClass(String name) throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream(name);
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		
+		GrowableByteBuffer buf = new GrowableByteBuffer(16);
+		clazz.write(buf, 0);
+		assertArrayEquals(data, buf.toByteArray());
+		assertEquals(clazz.getLength(), buf.getSize());
+	}
+	
+}
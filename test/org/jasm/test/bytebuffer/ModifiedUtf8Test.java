@@ -0,0 +1,96 @@
+package org.jasm.test.bytebuffer;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
+import org.jasm.bytebuffer.ModifiedUtf8;
+import org.jasm.bytebuffer.NioByteBuffer;
+import org.junit.Test;
+
+public class ModifiedUtf8Test {
+	
+	private static final String[] VALUES = new String[]{
+		"",
+		"java/lang/Object",
+		"(Ljava/lang/String;I)V",
+		"Hello World mit Ümläten",
+		"null\u0000char",
+		"߿ࠀ￿",
+		"surrogates 😀",
+		"ascii then ü then ascii again"
+	};
+	
+	@Test
+	public void testSameAsDataOutput() throws IOException {
+		for (String value: VALUES) {
+			byte [] expected = writeUTF(value);
+			byte [] encoded = ModifiedUtf8.encode(value);
+			assertEquals(value, expected.length-2, ModifiedUtf8.getEncodedLength(value));
+			assertEquals(value, expected.length-2, encoded.length);
+			for (int i=0;i<encoded.length; i++) {
+				assertEquals(value, expected[i+2], encoded[i]);
+			}
+			assertEquals(value, ModifiedUtf8.decode(expected, 2, expected.length-2));
+		}
+	}
+	
+	@Test
+	public void testBuffers() throws IOException {
+		for (String value: VALUES) {
+			byte [] expected = writeUTF(value);
+			
+			byte [] data = new byte[expected.length+3];
+			ByteArrayByteBuffer b1 = new ByteArrayByteBuffer(data);
+			b1.writeUTF8(3, value);
+			assertEquals(value, readUTF(data, 3));
+			assertEquals(value, b1.readUTF8(3).getValue());
+			assertEquals(expected.length, b1.readUTF8(3).getLength());
+			
+			GrowableByteBuffer b2 = new GrowableByteBuffer();
+			b2.writeUTF8(0, value);
+			assertArrayEquals(expected, b2.toByteArray());
+			assertEquals(value, b2.readUTF8(0).getValue());
+			
+			NioByteBuffer b3 = NioByteBuffer.wrap(new byte[expected.length]);
+			b3.writeUTF8(0, value);
+			assertEquals(value, b3.readUTF8(0).getValue());
+		}
+	}
+	
+	@Test
+	public void testMalformed() {
+		try {
+			ModifiedUtf8.decode(new byte[]{'a', (byte)0xC3}, 0, 2);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+			
+		}
+		try {
+			ModifiedUtf8.decode(new byte[]{(byte)0xE0, (byte)0x80, 'a'}, 0, 3);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+			
+		}
+	}
+	
+	private byte[] writeUTF(String value) throws IOException {
+		ByteArrayOutputStream bo = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(bo);
+		dos.writeUTF(value);
+		dos.flush();
+		return bo.toByteArray();
+	}
+	
+	private String readUTF(byte [] data, int offset) throws IOException {
+		DataInputStream di = new DataInputStream(new ByteArrayInputStream(data, offset, data.length-offset));
+		return di.readUTF();
+	}
+	
+}
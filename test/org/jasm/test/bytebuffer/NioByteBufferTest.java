@@ -0,0 +1,216 @@
+package org.jasm.test.bytebuffer;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.MappedZipFile;
+import org.jasm.bytebuffer.NioByteBuffer;
+import org.jasm.item.clazz.Clazz;
+import org.junit.Test;
+
+public class NioByteBufferTest {
+	
+	@Test
+	public void testPrimitives() {
+		doTestPrimitives(NioByteBuffer.wrap(new byte[64]));
+		doTestPrimitives(NioByteBuffer.allocateDirect(64));
+	}
+	
+	@Test
+	public void testMapFile() throws IOException {
+		byte [] data = readClassBytes();
+		File f = File.createTempFile("jasm", ".class");
+		f.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(f);
+		out.write(data);
+		out.close();
+		
+		NioByteBuffer mapped = NioByteBuffer.map(f);
+		assertEquals(data.length, mapped.getCapacity());
+		assertReadsEqual(data, mapped);
+	}
+	
+	@Test
+	public void testMapStoredZipEntry() throws IOException {
+		byte [] data = readClassBytes();
+		File f = File.createTempFile("jasm", ".jar");
+		f.deleteOnExit();
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f));
+		
+		ZipEntry stored = new ZipEntry("stored/HelloWorld.class");
+		stored.setMethod(ZipEntry.STORED);
+		stored.setSize(data.length);
+		stored.setCompressedSize(data.length);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		stored.setCrc(crc.getValue());
+		out.putNextEntry(stored);
+		out.write(data);
+		out.closeEntry();
+		
+		ZipEntry deflated = new ZipEntry("deflated/HelloWorld.class");
+		out.putNextEntry(deflated);
+		out.write(data);
+		out.closeEntry();
+		out.close();
+		
+		MappedZipFile zip = new MappedZipFile(f);
+		assertTrue(zip.isStored("stored/HelloWorld.class"));
+		assertFalse(zip.isStored("deflated/HelloWorld.class"));
+		assertNull(zip.getStoredEntry("deflated/HelloWorld.class"));
+		assertNull(zip.getStoredEntry("missing.class"));
+		
+		IByteBuffer entry = zip.getStoredEntry("stored/HelloWorld.class");
+		assertReadsEqual(data, entry);
+	}
+	
+	@Test
+	public void testReadZipEntry() throws IOException {
+		byte [] data = readClassBytes();
+		File f = File.createTempFile("jasm", ".jar");
+		f.deleteOnExit();
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f));
+		out.putNextEntry(new ZipEntry("small/HelloWorld.class"));
+		out.write(data);
+		out.closeEntry();
+		//larger than the initial input buffer
+		byte [] large = new byte[100000];
+		new Random(1).nextBytes(large);
+		out.putNextEntry(new ZipEntry("large.bin"));
+		out.write(large);
+		out.closeEntry();
+		out.close();
+		
+		MappedZipFile zip = new MappedZipFile(f);
+		assertTrue(zip.contains("small/HelloWorld.class"));
+		assertArrayEquals(data, zip.readEntry("small/HelloWorld.class"));
+		assertArrayEquals(large, zip.readEntry("large.bin"));
+		assertArrayEquals(data, zip.readEntry("small/HelloWorld.class"));
+		assertNull(zip.readEntry("missing.class"));
+	}
+	
+	@Test
+	public void testUnmappableZips() throws IOException {
+		byte [] data = readClassBytes();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ZipOutputStream out = new ZipOutputStream(bytes);
+		out.putNextEntry(new ZipEntry("HelloWorld.class"));
+		out.write(data);
+		out.closeEntry();
+		out.close();
+		byte [] zip = bytes.toByteArray();
+		int end = zip.length-22;
+		int centralDirectory = readInt(zip, end+16);
+		
+		//zip64 marker as local header offset
+		byte [] zip64 = zip.clone();
+		writeInt(zip64, centralDirectory+42, 0xFFFFFFFF);
+		assertNotMappable(zip64);
+		
+		//central directory out of range
+		byte [] corrupt = zip.clone();
+		writeInt(corrupt, end+16, zip.length+100);
+		assertNotMappable(corrupt);
+		
+		//local header out of range
+		corrupt = zip.clone();
+		writeInt(corrupt, centralDirectory+42, zip.length-10);
+		assertNotMappable(corrupt);
+	}
+	
+	private void assertNotMappable(byte [] zip) throws IOException {
+		File f = File.createTempFile("jasm", ".jar");
+		f.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(f);
+		out.write(zip);
+		out.close();
+		try {
+			new MappedZipFile(f);
+			fail("mapped "+f);
+		} catch (IOException e) {
+			//the caller falls back to java.util.zip
+		}
+	}
+	
+	private static int readInt(byte [] data, int offset) {
+		return (data[offset] & 0xFF) | (data[offset+1] & 0xFF) << 8 | (data[offset+2] & 0xFF) << 16 | (data[offset+3] & 0xFF) << 24;
+	}
+	
+	private static void writeInt(byte [] data, int offset, int value) {
+		for (int i=0;i<4; i++) {
+			data[offset+i] = (byte)(value >>> (8*i));
+		}
+	}
+	
+	private void assertReadsEqual(byte [] data, IByteBuffer buffer) {
+		assertArrayEquals(data, buffer.readByteArray(0, data.length));
+		
+		Clazz clazz = new Clazz();
+		clazz.read(buffer, 0);
+		clazz.resolve();
+		byte [] data2 = new byte[clazz.getLength()];
+		clazz.write(new ByteArrayByteBuffer(data2), 0);
+		assertArrayEquals(data, data2);
+	}
+	
+	private byte [] readClassBytes() throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream("org/jasm/test/testclass/HelloWorld.class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		return data;
+	}
+	
+	private void doTestPrimitives(NioByteBuffer b) {
+		b.writeUnsignedByte(5, (short)0xFF);
+		assertEquals(0xFF, b.readUnsignedByte(5));
+		assertEquals(-1, b.readByte(5));
+		
+		b.writeUnsignedShort(5, 0xCAFE);
+		assertEquals(0xCAFE, b.readUnsignedShort(5));
+		assertEquals((byte)0xCA, b.readByte(5));
+		assertEquals((byte)0xFE, b.readByte(6));
+		
+		b.writeShort(5, (short)-32768);
+		assertEquals(-32768, b.readShort(5));
+		
+		b.writeUnsignedInt(5, 0xCAFEBABEL);
+		assertEquals(0xCAFEBABEL, b.readUnsignedInt(5));
+		assertEquals(0xCAFEBABE, b.readInt(5));
+		
+		b.writeLong(5, -5L);
+		assertEquals(-5L, b.readLong(5));
+		
+		b.writeFloat(5, -5.5f);
+		assertEquals(-5.5f, b.readFloat(5), 0.0);
+		
+		b.writeDouble(5, 5.5);
+		assertEquals(5.5, b.readDouble(5), 0.0);
+		
+		b.writeByteArray(10, new byte[]{1,2,3});
+		assertArrayEquals(new byte[]{1,2,3}, b.readByteArray(10, 3));
+		
+		String st = "Hello World mit Ümläten";
+		b.writeUTF8(20, st);
+		assertEquals(st, b.readUTF8(20).getValue());
+		
+		try {
+			b.readInt(62);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+			
+		}
+	}
+	
+}
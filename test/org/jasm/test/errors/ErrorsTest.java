@@ -7,14 +7,22 @@ import java.io.InputStream;
 import java.io.LineNumberReader;
 import java.io.PrintWriter;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.Assert;
 
 import org.apache.commons.io.IOUtils;
 import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.environment.Environment;
 import org.jasm.item.clazz.Clazz;
 import org.jasm.parser.AssemblerParser;
+import org.jasm.parser.ErrorMessage;
 import org.jasm.resolver.ClassInfoResolver;
 import org.jasm.resolver.ClassLoaderClasspathEntry;
 import org.jasm.resolver.ClazzClassPathEntry;
@@ -994,6 +1002,100 @@ public class ErrorsTest {
 		Assert.assertTrue(checkForErrorMessage(listener, 106,"code verification error"));
 	}
 	
+	@Test
+	public void testDeadCode() {
+		TestErrorsListener listener = new TestErrorsListener();
+		byte[] data = getData("org.jasm.test.verify.ConstrConcat");
+		String originalCode = disassemble(data);
+		
+		//every dead region is reported once at its first instruction
+		String code = insert(originalCode,75,"nop;");
+		code = insert(code,76,"return;");
+		code = insert(code,77,"return;");
+		assemble(code, listener);
+		Assert.assertTrue(listener.getMessages(76).isEmpty());
+		Assert.assertTrue(checkForErrorMessage(listener, 75,"dead code"));
+		Assert.assertTrue(checkForErrorMessage(listener, 77,"dead code"));
+	}
+	
+	@Test
+	public void testParallelVerification() {
+		byte[] data = getData("org.jasm.test.verify.ConstrConcat");
+		String originalCode = disassemble(data);
+		
+		//type errors in all three methods
+		String code = patch(originalCode,72,"aconst_null","iconst_0");
+		code = patch(code,105,"aload s","iload a");
+		code = patch(code,128,"aload this","iconst_0");
+		
+		TestErrorsListener sequential = new TestErrorsListener();
+		assemble(code, sequential);
+		Assert.assertTrue(sequential.getAllMessages().size() >= 3);
+		byte [] sequentialData = assemble(originalCode, new TestErrorsListener());
+		
+		Environment.setIntValue("jasm.verification.threads", 4);
+		try {
+			for (int i=0;i<10; i++) {
+				TestErrorsListener parallel = new TestErrorsListener();
+				assemble(code, parallel);
+				Assert.assertEquals(sequential.getAllMessages(), parallel.getAllMessages());
+			}
+			//the same bytes, including the generated stackmaps
+			Assert.assertTrue(Arrays.equals(sequentialData, assemble(originalCode, new TestErrorsListener())));
+		} finally {
+			Environment.setIntValue("jasm.verification.threads", 0);
+		}
+	}
+	
+	@Test
+	public void testParallelVerificationWithDifferentThreads() throws Exception {
+		byte[] data = getData("org.jasm.test.verify.ConstrConcat");
+		final String originalCode = disassemble(data);
+		final byte [] sequentialData = assemble(originalCode, new TestErrorsListener());
+		
+		//the assemblers use different numbers of threads at the same time
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int i=0;i<3; i++) {
+				final int threads = i+2;
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						Environment.setIntValue("jasm.verification.threads", threads);
+						boolean result = true;
+						for (int j=0;j<20; j++) {
+							result &= Arrays.equals(sequentialData, assemble(originalCode, new TestErrorsListener()));
+						}
+						return result;
+					}
+				}));
+			}
+			for (Future<Boolean> result: results) {
+				Assert.assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBufferedErrorsAreCountedWhenEmitted() {
+		AssemblerParser parser = new AssemblerParser();
+		TestErrorsListener listener = new TestErrorsListener();
+		parser.addErrorListener(listener);
+		parser.startBufferingErrors();
+		parser.emitError(1, 0, "first");
+		parser.emitError(2, 0, "second");
+		List<ErrorMessage> errors = parser.stopBufferingErrors();
+		//errors which are never replayed (e.g. after a failed verification task) aren't counted
+		Assert.assertEquals(0, parser.getErrorCounter());
+		Assert.assertEquals(0, listener.getAllMessages().size());
+		parser.emitErrors(errors);
+		Assert.assertEquals(2, parser.getErrorCounter());
+		Assert.assertEquals(2, listener.getAllMessages().size());
+	}
+	
 	@Test
 	public void testBuiltinMacros() {
 		TestErrorsListener listener = new TestErrorsListener();
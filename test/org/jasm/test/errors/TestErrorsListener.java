@@ -12,11 +12,13 @@ import org.slf4j.LoggerFactory;
 public class TestErrorsListener implements IParserErrorListener {
 	
 	private Map<Integer, List<String>> messages = new HashMap<Integer, List<String>>();
+	private List<String> allMessages = new ArrayList<String>();
 	private Logger log = LoggerFactory.getLogger(this.getClass());
 
 	@Override
 	public void clear() {
 		messages.clear();
+		allMessages.clear();
 	}
 
 	@Override
@@ -27,6 +29,7 @@ public class TestErrorsListener implements IParserErrorListener {
 			messages.put(line, lMessages);
 		}
 		lMessages.add(msg);
+		allMessages.add(line+":"+charPos+" "+msg);
 		log.debug(line+":"+charPos+" "+msg);
 	}
 
@@ -44,6 +47,13 @@ public class TestErrorsListener implements IParserErrorListener {
 		return result;
 	}
 
+	/**
+	 * @return all messages in the order they were reported, prefixed by their position
+	 */
+	public List<String> getAllMessages() {
+		return allMessages;
+	}
+
 	@Override
 	public void emitInternalError(int line, int charPos, String msg) {
 		throw new RuntimeException(msg);
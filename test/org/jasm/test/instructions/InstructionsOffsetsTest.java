@@ -0,0 +1,80 @@
+package org.jasm.test.instructions;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.item.instructions.AbstractInstruction;
+import org.jasm.item.instructions.ArgumentLessInstruction;
+import org.jasm.item.instructions.Instructions;
+import org.jasm.item.instructions.OpCodes;
+import org.junit.Test;
+
+public class InstructionsOffsetsTest {
+	
+	@Test
+	public void testReadClasses() throws IOException {
+		doTestClass("org/jasm/test/testclass/Class2.class");
+		doTestClass("org/jasm/test/testclass/ClassWithManyBranches.class");
+	}
+	
+	@Test
+	public void testStructuralChanges() throws IOException {
+		Clazz clazz = readClass("org/jasm/test/testclass/Class2.class");
+		for (Instructions instrs: clazz.getDescendants(Instructions.class)) {
+			int length = instrs.getLength();
+			AbstractInstruction first = instrs.get(0);
+			AbstractInstruction nop = new ArgumentLessInstruction(OpCodes.nop);
+			instrs.add(0, nop);
+			assertEquals(length+1, instrs.getLength());
+			assertEquals(0, nop.getIndex());
+			assertEquals(1, first.getIndex());
+			assertEquals(1, first.getOffsetInCode());
+			assertSame(first, instrs.getInstructionAtOffset(1));
+			assertOffsets(instrs);
+			
+			instrs.remove(nop);
+			assertEquals(length, instrs.getLength());
+			assertEquals(-1, instrs.indexOf(nop));
+			assertEquals(0, first.getIndex());
+			assertOffsets(instrs);
+		}
+	}
+	
+	private void doTestClass(String name) throws IOException {
+		Clazz clazz = readClass(name);
+		List<Instructions> list = clazz.getDescendants(Instructions.class);
+		assertTrue(list.size()>0);
+		for (Instructions instrs: list) {
+			assertOffsets(instrs);
+		}
+	}
+	
+	private void assertOffsets(Instructions instrs) {
+		int offset = 0;
+		for (int i=0;i<instrs.getSize(); i++) {
+			AbstractInstruction instr = instrs.get(i);
+			assertEquals(i, instr.getIndex());
+			assertEquals(offset, instr.getOffsetInCode());
+			assertSame(instr, instrs.getInstructionAtOffset(offset));
+			offset+=instr.getLength();
+		}
+		assertEquals(offset, instrs.getCodeLength());
+	}
+	
+	private Clazz readClass(String name) throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream(name);
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		return clazz;
+	}
+	
+}
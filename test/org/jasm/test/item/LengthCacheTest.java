@@ -0,0 +1,253 @@
+package org.jasm.test.item;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.GrowableByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.bytebuffer.print.IPrintable;
+import org.jasm.item.AbstractByteCodeItem;
+import org.jasm.item.AbstractBytecodeItemList;
+import org.jasm.item.IBytecodeItem;
+import org.jasm.item.attribute.Attribute;
+import org.jasm.item.attribute.CodeAttributeContent;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.item.constantpool.Utf8Info;
+import org.junit.Test;
+
+public class LengthCacheTest {
+	
+	@Test
+	public void testLengthsAreCalculatedOnce() {
+		CountingList outer = new CountingList();
+		CountingItem [] leafs = new CountingItem[6];
+		for (int i=0;i<2; i++) {
+			CountingList inner = new CountingList();
+			for (int j=0;j<3; j++) {
+				leafs[i*3+j] = new CountingItem(j+1);
+				inner.add(leafs[i*3+j]);
+			}
+			outer.add(inner);
+		}
+		
+		assertEquals(2+2*(2+1+2+3), outer.getLength());
+		assertCounts(leafs, 1);
+		assertEquals(2+2*(2+1+2+3), outer.getLength());
+		assertCounts(leafs, 1);
+		
+		//a changed leaf invalidates its ancestors only
+		leafs[0].setLength(5);
+		assertEquals(2+2*(2+1+2+3)+4, outer.getLength());
+		assertEquals(2, leafs[0].count);
+		assertEquals(2, leafs[1].count);
+		assertEquals(1, leafs[3].count);
+		
+		//structural changes
+		CountingItem added = new CountingItem(7);
+		((CountingList)leafs[4].getParent()).add(added);
+		assertEquals(2+2*(2+1+2+3)+4+7, outer.getLength());
+		assertEquals(1, added.count);
+		assertEquals(2, leafs[0].count);
+		assertEquals(2, leafs[3].count);
+		
+		((CountingList)leafs[4].getParent()).remove(added);
+		assertEquals(2+2*(2+1+2+3)+4, outer.getLength());
+		assertEquals(3, leafs[3].count);
+		
+		outer.clearLengthCaches();
+		assertEquals(2+2*(2+1+2+3)+4, outer.getLength());
+		assertEquals(3, leafs[0].count);
+		assertEquals(4, leafs[3].count);
+	}
+	
+	@Test
+	public void testWriteCalculatesLengthsOnce() {
+		CountingList list = new CountingList();
+		CountingItem [] leafs = new CountingItem[10];
+		for (int i=0;i<leafs.length; i++) {
+			leafs[i] = new CountingItem(i+1);
+			list.add(leafs[i]);
+		}
+		int length = list.getLength();
+		GrowableByteBuffer buffer = new GrowableByteBuffer();
+		list.write(buffer, 0);
+		assertEquals(length, buffer.getSize());
+		assertEquals(length, list.getLength());
+		assertCounts(leafs, 1);
+	}
+	
+	@Test
+	public void testClassRoundtrip() throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream("org/jasm/test/testclass/Class2.class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		assertEquals(data.length, clazz.getLength());
+		
+		List<Utf8Info> utf8s = clazz.getDescendants(Utf8Info.class);
+		Utf8Info info = utf8s.get(utf8s.size()-1);
+		info.setValue(info.getValue()+"abc");
+		assertEquals(data.length+3, clazz.getLength());
+		
+		GrowableByteBuffer buffer = new GrowableByteBuffer();
+		clazz.write(buffer, 0);
+		assertEquals(data.length+3, buffer.getSize());
+	}
+	
+	@Test
+	public void testLargeClassCalculatesLengthsOnce() throws IOException {
+		//the generated parser is the largest class at hand
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream("org/jasm/parser/AssemblerParser.class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		
+		//a counting leaf at the deepest container of every method
+		Utf8Info name = clazz.getConstantPool().getOrAddUtf8nfo("Counter");
+		List<CodeAttributeContent> codes = clazz.getDescendants(CodeAttributeContent.class);
+		assertTrue(codes.size() > 100);
+		CountingAttribute [] counters = new CountingAttribute[codes.size()];
+		for (int i=0;i<counters.length; i++) {
+			counters[i] = new CountingAttribute(name);
+			codes.get(i).getAttributes().add(counters[i]);
+		}
+		
+		int length = clazz.getLength();
+		for (int i=0;i<10; i++) {
+			assertEquals(length, clazz.getLength());
+		}
+		GrowableByteBuffer buffer = new GrowableByteBuffer();
+		clazz.write(buffer, 0);
+		assertEquals(length, buffer.getSize());
+		
+		//without the cache every query of the class length asks every leaf again
+		for (CountingAttribute counter: counters) {
+			assertEquals(1, counter.count);
+		}
+	}
+	
+	private void assertCounts(CountingItem [] leafs, int expected) {
+		for (CountingItem leaf: leafs) {
+			assertEquals(expected, leaf.count);
+		}
+	}
+	
+	private static class CountingAttribute extends Attribute {
+		
+		private int count = 0;
+		
+		CountingAttribute(Utf8Info name) {
+			super(new byte[0], name);
+		}
+		
+		@Override
+		public int getLength() {
+			count++;
+			return super.getLength();
+		}
+		
+	}
+	
+	private static class CountingList extends AbstractBytecodeItemList<IBytecodeItem> {
+		
+		@Override
+		public String getPrintName() {
+			return null;
+		}
+		
+		@Override
+		protected IBytecodeItem createEmptyItem(IByteBuffer source, long offset) {
+			throw new UnsupportedOperationException();
+		}
+		
+	}
+	
+	private static class CountingItem extends AbstractByteCodeItem {
+		
+		private int length;
+		private int count = 0;
+		
+		CountingItem(int length) {
+			this.length = length;
+		}
+		
+		void setLength(int length) {
+			this.length = length;
+			lengthChanged();
+		}
+		
+		@Override
+		public void read(IByteBuffer source, long offset) {
+			
+		}
+		
+		@Override
+		public void write(IByteBuffer target, long offset) {
+			target.writeByteArray(offset, new byte[length]);
+		}
+		
+		@Override
+		public int getLength() {
+			count++;
+			return length;
+		}
+		
+		@Override
+		public boolean isStructure() {
+			return false;
+		}
+		
+		@Override
+		public List<IPrintable> getStructureParts() {
+			return null;
+		}
+		
+		@Override
+		public String getPrintLabel() {
+			return null;
+		}
+		
+		@Override
+		public String getPrintName() {
+			return null;
+		}
+		
+		@Override
+		public String getPrintArgs() {
+			return null;
+		}
+		
+		@Override
+		public String getPrintComment() {
+			return null;
+		}
+		
+		@Override
+		protected void doResolve() {
+			
+		}
+		
+		@Override
+		protected void doVerify() {
+			
+		}
+		
+		@Override
+		protected void doResolveAfterParse() {
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,56 @@
+package org.jasm.test.map;
+
+import static org.junit.Assert.*;
+
+import org.jasm.item.constantpool.Utf8Info;
+import org.jasm.map.StringPool;
+import org.jasm.type.descriptor.MethodDescriptor;
+import org.jasm.type.descriptor.TypeDescriptor;
+import org.junit.After;
+import org.junit.Test;
+
+public class StringPoolTest {
+	
+	@After
+	public void tearDown() {
+		StringPool.setShared(null);
+	}
+	
+	@Test
+	public void testWithoutSharedPool() {
+		String s = new String("java/lang/Object");
+		assertSame(s, StringPool.intern(s));
+		assertNull(StringPool.intern(null));
+	}
+	
+	@Test
+	public void testSharedPool() {
+		StringPool pool = new StringPool();
+		StringPool.setShared(pool);
+		
+		String s1 = new String("java/lang/Object");
+		String s2 = new String("java/lang/Object");
+		assertSame(s1, StringPool.intern(s1));
+		assertSame(s1, StringPool.intern(s2));
+		assertSame(s1, StringPool.intern(s1));
+		assertEquals(1, pool.getSize());
+		assertEquals(1, pool.getDeduplicatedStrings());
+		assertTrue(pool.getDeduplicatedBytes()>=2*s1.length());
+		
+		Utf8Info utf8 = new Utf8Info();
+		utf8.setValue(new String("java/lang/Object"));
+		assertSame(s1, utf8.getValue());
+		
+		TypeDescriptor t1 = new TypeDescriptor(new String("Ljava/lang/Object;"));
+		TypeDescriptor t2 = new TypeDescriptor(new String("Ljava/lang/Object;"));
+		assertSame(t1.getValue(), t2.getValue());
+		assertSame(s1, t1.getClassName());
+		
+		MethodDescriptor m1 = new MethodDescriptor(new String("()V"));
+		MethodDescriptor m2 = new MethodDescriptor(new String("()V"));
+		assertSame(m1.getValue(), m2.getValue());
+		
+		assertEquals(6, pool.getDeduplicatedStrings());
+	}
+	
+}
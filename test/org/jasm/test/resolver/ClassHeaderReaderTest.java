@@ -0,0 +1,79 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.resolver.ClassHeaderReader;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.FieldInfo;
+import org.jasm.resolver.MethodInfo;
+import org.junit.Test;
+
+public class ClassHeaderReaderTest {
+	
+	@Test
+	public void testSameAsFromClazz() throws IOException {
+		doTest("org/jasm/test/testclass/Class2.class");
+		doTest("org/jasm/test/testclass/AnnotatedClass.class");
+		doTest("org/jasm/test/testclass/Days.class");
+		doTest("org/jasm/test/testclass/LambdaExample.class");
+		doTest("org/jasm/test/testclass/LongMethodClass.class");
+		doTest("java/lang/Object.class");
+		doTest("java/lang/String.class");
+		doTest("java/util/HashMap.class");
+	}
+	
+	@Test
+	public void testNoClassFile() {
+		try {
+			ClassHeaderReader.read(new ByteArrayByteBuffer(new byte[]{1,2,3,4,5,6,7,8,9,10}));
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+			
+		}
+	}
+	
+	private void doTest(String name) throws IOException {
+		InputStream inp = ClassLoader.getSystemResourceAsStream(name);
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		ExternalClassInfo expected = ExternalClassInfo.createFromClass(clazz);
+		ExternalClassInfo info = ClassHeaderReader.read(new ByteArrayByteBuffer(data));
+		
+		assertEquals(expected.getName(), info.getName());
+		assertEquals(expected.getSuperName(), info.getSuperName());
+		assertEquals(expected.getInterfacesNames(), info.getInterfacesNames());
+		assertEquals(expected.getModifier().getValue(), info.getModifier().getValue());
+		
+		assertEquals(expected.getMethods().size(), info.getMethods().size());
+		for (int i=0;i<info.getMethods().size(); i++) {
+			MethodInfo e = expected.getMethods().get(i);
+			MethodInfo m = info.getMethods().get(i);
+			assertEquals(e.getName(), m.getName());
+			assertEquals(e.getDescriptor().getValue(), m.getDescriptor().getValue());
+			assertEquals(e.getModifier().getValue(), m.getModifier().getValue());
+			assertSame(info, m.getParent());
+			assertSame(m, info.getMethod(m.getName(), m.getDescriptor().getValue()));
+		}
+		
+		assertEquals(expected.getFields().size(), info.getFields().size());
+		for (int i=0;i<info.getFields().size(); i++) {
+			FieldInfo e = expected.getFields().get(i);
+			FieldInfo f = info.getFields().get(i);
+			assertEquals(e.getName(), f.getName());
+			assertEquals(e.getDescriptor().getValue(), f.getDescriptor().getValue());
+			assertEquals(e.getModifier().getValue(), f.getModifier().getValue());
+			assertSame(f, info.getField(f.getName(), f.getDescriptor().getValue()));
+		}
+	}
+	
+}
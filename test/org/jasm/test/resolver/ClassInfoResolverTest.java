@@ -0,0 +1,375 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.parser.AssemblerParser;
+import org.jasm.parser.SimpleParserErrorListener;
+import org.jasm.resolver.ClassInfoResolver;
+import org.jasm.resolver.ClassLoaderClasspathEntry;
+import org.jasm.resolver.DirClasspathEntry;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.IClassPathEntry;
+import org.jasm.resolver.MemberKey;
+import org.jasm.resolver.MethodInfo;
+import org.jasm.resolver.ResolveClassNotFoundException;
+import org.jasm.resolver.ResolveIllegalAccessException;
+import org.junit.Test;
+
+public class ClassInfoResolverTest {
+	
+	@Test
+	public void testNegativeCache() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		
+		assertNull(resolver.resolve(null, "no/such/Clazz", false));
+		assertEquals(0, resolver.getNegativeClassHits());
+		assertNull(resolver.resolve(null, "no/such/Clazz", false));
+		assertNull(resolver.resolve(null, "no/such/Clazz", false));
+		assertEquals(2, resolver.getNegativeClassHits());
+		
+		assertNull(resolver.resolveField(null, "java/lang/String", "noSuchField", "I", false));
+		assertEquals(0, resolver.getNegativeMemberHits());
+		assertNull(resolver.resolveField(null, "java/lang/String", "noSuchField", "I", false));
+		assertEquals(1, resolver.getNegativeMemberHits());
+		assertNotNull(resolver.resolveField(null, "java/lang/String", "value", "[C", false));
+		assertNotNull(resolver.resolveMethod(null, "java/util/ArrayList", "size", "()I", false));
+		assertNotNull(resolver.resolveInterfaceMethod(null, "java/util/List", "size", "()I", false));
+		assertEquals(1, resolver.getNegativeMemberHits());
+		
+		for (int i=0;i<2; i++) {
+			try {
+				resolver.resolveMethod(null, "no/such/Clazz", "m", "()V", false);
+				fail("ResolveClassNotFoundException expected");
+			} catch (ResolveClassNotFoundException e) {
+				
+			}
+		}
+		assertEquals(2, resolver.getNegativeMemberHits());
+	}
+	
+	@Test
+	public void testPackageIndex() throws IOException {
+		File root = Files.createTempDirectory("jasm").toFile();
+		try {
+			File dir1 = new File(root, "dir1");
+			File dir2 = new File(root, "dir2");
+			write(dir1, "p/a.txt", "1");
+			write(dir2, "p/a.txt", "2");
+			write(dir2, "q/b.txt", "3");
+			write(dir2, "c.txt", "4");
+			
+			CountingDirEntry entry1 = new CountingDirEntry(dir1);
+			CountingDirEntry entry2 = new CountingDirEntry(dir2);
+			UnlistedEntry unlisted = new UnlistedEntry();
+			ClassInfoResolver resolver = new ClassInfoResolver();
+			resolver.add(unlisted);
+			resolver.add(entry1);
+			resolver.add(entry2);
+			
+			assertEquals("1", new String(resolver.findBytes("p/a.txt"), StandardCharsets.UTF_8));
+			assertEquals(1, unlisted.count);
+			assertEquals(1, entry1.count);
+			assertEquals(0, entry2.count);
+			
+			assertEquals("3", new String(resolver.findBytes("q/b.txt"), StandardCharsets.UTF_8));
+			assertEquals(2, unlisted.count);
+			assertEquals(1, entry1.count);
+			assertEquals(1, entry2.count);
+			
+			assertEquals("4", new String(resolver.findBytes("c.txt"), StandardCharsets.UTF_8));
+			assertNull(resolver.findBytes("r/d.txt"));
+			assertNull(resolver.findBytes("q/d.txt"));
+			assertEquals(5, unlisted.count);
+			assertEquals(1, entry1.count);
+			assertEquals(3, entry2.count);
+			
+			//the unlisted entry is asked first and wins
+			unlisted.content = new byte[]{'5'};
+			assertEquals("5", new String(resolver.findBytes("p/a.txt"), StandardCharsets.UTF_8));
+			assertEquals(1, entry1.count);
+			
+			//changing the classpath rebuilds the index
+			resolver.addAtBegin(new DirClasspathEntry(dir2));
+			assertEquals("2", new String(resolver.findBytes("p/a.txt"), StandardCharsets.UTF_8));
+		} finally {
+			FileUtils.deleteDirectory(root);
+		}
+	}
+	
+	private void write(File dir, String name, String content) throws IOException {
+		FileUtils.writeStringToFile(new File(dir, name), content, StandardCharsets.UTF_8);
+	}
+	
+	private static class CountingDirEntry extends DirClasspathEntry {
+		
+		private int count = 0;
+		
+		CountingDirEntry(File rootDir) {
+			super(rootDir);
+		}
+		
+		@Override
+		public byte[] findBytes(String resourceName) {
+			count++;
+			return super.findBytes(resourceName);
+		}
+		
+	}
+	
+	private static class UnlistedEntry implements IClassPathEntry {
+		
+		private int count = 0;
+		private byte [] content = null;
+		
+		@Override
+		public byte[] findBytes(String resourceName) {
+			count++;
+			return content;
+		}
+		
+		@Override
+		public ExternalClassInfo findClass(String className) {
+			return null;
+		}
+		
+		@Override
+		public boolean isInvalid() {
+			return false;
+		}
+		
+	}
+	
+	@Test
+	public void testSupertypes() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		ExternalClassInfo arrayList = resolver.resolve(null, "java/util/ArrayList", false);
+		for (String name: new String[]{"java/util/ArrayList", "java/util/AbstractList", "java/util/List", "java/util/Collection", "java/lang/Iterable", "java/util/RandomAccess", "java/lang/Object"}) {
+			assertTrue(name, arrayList.isAssignableTo(resolver.resolve(null, name, false)));
+		}
+		ExternalClassInfo map = resolver.resolve(null, "java/util/Map", false);
+		assertFalse(arrayList.isAssignableTo(map));
+		assertFalse(map.isAssignableTo(arrayList));
+		assertFalse(resolver.resolve(null, "java/util/List", false).isAssignableTo(arrayList));
+		
+		assertTrue(arrayList.isDerivedFrom(resolver.resolve(null, "java/util/AbstractCollection", false)));
+		assertTrue(arrayList.isDerivedFrom(resolver.resolve(null, "java/lang/Object", false)));
+		assertTrue(arrayList.isDerivedFrom(arrayList));
+		assertFalse(arrayList.isDerivedFrom(resolver.resolve(null, "java/util/List", false)));
+		assertFalse(arrayList.isDerivedFrom(resolver.resolve(null, "java/util/AbstractSequentialList", false)));
+		assertFalse(resolver.resolve(null, "java/util/AbstractList", false).isDerivedFrom(arrayList));
+		
+		ExternalClassInfo arrayListArray = resolver.resolve(null, "[Ljava/util/ArrayList;", false);
+		assertTrue(arrayListArray.isAssignableTo(resolver.resolve(null, "[Ljava/util/List;", false)));
+		assertFalse(arrayListArray.isAssignableTo(resolver.resolve(null, "[Ljava/util/Map;", false)));
+		assertFalse(arrayListArray.isAssignableTo(arrayList));
+	}
+	
+	@Test
+	public void testMergeCache() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		assertNull(resolver.getMerge("java/util/ArrayList", "java/util/LinkedList"));
+		resolver.putMerge("java/util/ArrayList", "java/util/LinkedList", "java/util/AbstractList");
+		assertEquals("java/util/AbstractList", resolver.getMerge("java/util/ArrayList", "java/util/LinkedList"));
+		assertNull(resolver.getMerge("java/util/LinkedList", "java/util/ArrayList"));
+		
+		assertNull(resolver.getInterface("java/util/List"));
+		resolver.putInterface("java/util/List", true);
+		resolver.putInterface("java/util/ArrayList", false);
+		assertTrue(resolver.getInterface("java/util/List"));
+		assertFalse(resolver.getInterface("java/util/ArrayList"));
+	}
+	
+	@Test
+	public void testInheritedMembers() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		
+		assertEquals("java/util/AbstractList", resolver.resolveField(null, "java/util/ArrayList", "modCount", "I", false).getParent().getName());
+		assertEquals("javax/swing/WindowConstants", resolver.resolveField(null, "javax/swing/JDialog", "DISPOSE_ON_CLOSE", "I", false).getParent().getName());
+		assertEquals("java/util/AbstractList", resolver.resolveMethod(null, "java/util/ArrayList", "hashCode", "()I", false).getParent().getName());
+		assertEquals("java/util/AbstractCollection", resolver.resolveMethod(null, "java/util/ArrayList", "toString", "()Ljava/lang/String;", false).getParent().getName());
+		assertEquals("java/lang/Object", resolver.resolveMethod(null, "java/util/ArrayList", "getClass", "()Ljava/lang/Class;", false).getParent().getName());
+		assertEquals("java/util/Collection", resolver.resolveMethod(null, "java/util/ArrayList", "stream", "()Ljava/util/stream/Stream;", false).getParent().getName());
+		assertEquals("java/util/Collection", resolver.resolveInterfaceMethod(null, "java/util/List", "stream", "()Ljava/util/stream/Stream;", false).getParent().getName());
+		assertNotNull(resolver.resolveMethod(null, "java/lang/invoke/MethodHandle", "invokeExact", "(Ljava/lang/String;)V", false));
+		
+		ExternalClassInfo linkedList = resolver.resolve(null, "java/util/LinkedList", false);
+		assertEquals("java/util/AbstractList", linkedList.findField(new MemberKey("modCount", "I")).getParent().getName());
+		assertEquals("java/util/AbstractSequentialList", linkedList.findClassMethod(new MemberKey("iterator", "()Ljava/util/Iterator;")).getParent().getName());
+		assertNull(linkedList.findClassMethod(new MemberKey("stream", "()Ljava/util/stream/Stream;")));
+		assertNull(linkedList.findField(new MemberKey("noSuchField", "I")));
+		
+		//inherited members are remembered on the way instead of copying the tables of the super types, 
+		//but not registered
+		ExternalClassInfo abstractSequentialList = resolver.resolve(null, "java/util/AbstractSequentialList", false);
+		MemberKey hashCode = new MemberKey("hashCode", "()I");
+		assertNull(abstractSequentialList.getMethod(hashCode));
+		MethodInfo found = linkedList.findClassMethod(hashCode);
+		assertSame(found, linkedList.findClassMethod(hashCode));
+		assertSame(found, abstractSequentialList.findClassMethod(hashCode));
+		assertNull(linkedList.getMethod(hashCode));
+		assertNull(abstractSequentialList.getMethod(hashCode));
+		assertNull(linkedList.getMethod(new MemberKey("noSuchMethod", "()V")));
+	}
+	
+	@Test
+	public void testInheritedMemberAccess() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		Clazz clazz = createRequester(resolver);
+		
+		//the protected AbstractList.modCount is found in LinkedList and AbstractSequentialList, 
+		//the access is checked however the lookup found it
+		String [] names = {"java/util/LinkedList", "java/util/AbstractSequentialList"};
+		for (String name: names) {
+			try {
+				resolver.resolveField(clazz, name, "modCount", "I", true);
+				fail("ResolveIllegalAccessException expected");
+			} catch (ResolveIllegalAccessException e) {
+				
+			}
+		}
+		assertNotNull(resolver.resolveField(null, "java/util/AbstractSequentialList", "modCount", "I", false));
+	}
+	
+	@Test
+	public void testArrayAccess() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		Clazz clazz = createRequester(resolver);
+		
+		//the array of the package private HashMap$Node is loaded without a requesting class
+		String array = "[[Ljava/util/HashMap$Node;";
+		assertEquals(1, resolver.prefetch(Arrays.asList(array), 1));
+		for (int i=0;i<2; i++) {
+			try {
+				resolver.resolve(clazz, array, true);
+				fail("ResolveIllegalAccessException expected");
+			} catch (ResolveIllegalAccessException e) {
+				
+			}
+		}
+		assertNotNull(resolver.resolve(clazz, array, false));
+		assertNotNull(resolver.resolve(clazz, "[Ljava/lang/String;", true));
+		assertNotNull(resolver.resolve(clazz, "[I", true));
+	}
+	
+	private Clazz createRequester(ClassInfoResolver resolver) {
+		String source = "public class {\n"
+				+ "  version 51.0;\n"
+				+ "  name classref_0;\n"
+				+ "  extends classref_2;\n"
+				+ "  const classref classref_0 utf8_1;\n"
+				+ "  const utf8 utf8_1 \"org/jasm/test/resolver/Requester\";\n"
+				+ "  const classref classref_2 utf8_3;\n"
+				+ "  const utf8 utf8_3 \"java/lang/Object\";\n"
+				+ "}\n";
+		AssemblerParser parser = new AssemblerParser();
+		parser.addErrorListener(new SimpleParserErrorListener());
+		Clazz clazz = parser.parse(new StringReader(source));
+		assertEquals(0, parser.getErrorCounter());
+		clazz.setResolver(resolver);
+		assertTrue(clazz.resolveMyselfAndSuperclasses());
+		return clazz;
+	}
+	
+	@Test
+	public void testBoundedCache() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		resolver.setMaxCacheSize(4);
+		
+		ExternalClassInfo object = resolver.resolve(null, "java/lang/Object", false);
+		assertEquals(1, resolver.getCacheMisses());
+		assertSame(object, resolver.resolve(null, "java/lang/Object", false));
+		assertEquals(1, resolver.getCacheHits());
+		
+		String [] names = {"java/util/HashMap", "java/util/ArrayList", "java/util/LinkedList", "java/util/TreeMap", "java/lang/StringBuilder"};
+		for (String name: names) {
+			assertNotNull(resolver.resolve(null, name, false));
+			//keeps java/lang/Object in use
+			resolver.resolve(null, "java/lang/Object", false);
+		}
+		assertTrue(resolver.getEvictions() > 0);
+		assertSame(object, resolver.resolve(null, "java/lang/Object", false));
+		
+		//super types stay pinned, the infos referencing them share them
+		ExternalClassInfo abstractMap = resolver.resolve(null, "java/util/AbstractMap", false);
+		ExternalClassInfo treeMap = resolver.resolve(null, "java/util/TreeMap", false);
+		assertSame(abstractMap, treeMap.getSuperClass());
+		
+		//evicted classes are read again, into a new info
+		long misses = resolver.getCacheMisses();
+		ExternalClassInfo hashMap = resolver.resolve(null, "java/util/HashMap", false);
+		assertEquals("java/util/HashMap", hashMap.getName());
+		assertTrue(resolver.getCacheMisses() > misses);
+		assertSame(abstractMap, hashMap.getSuperClass());
+		assertNotNull(resolver.resolveMethod(null, "java/util/HashMap", "size", "()I", false));
+		
+		//no limit
+		resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		for (String name: names) {
+			assertNotNull(resolver.resolve(null, name, false));
+		}
+		assertEquals(0, resolver.getEvictions());
+	}
+	
+	@Test
+	public void testPrefetch() {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		List<String> names = Arrays.asList("java/util/HashMap", "java/util/ArrayList", "java/util/TreeMap", "no/such/Clazz", "[Ljava/lang/String;");
+		assertEquals(4, resolver.prefetch(names, 4));
+		long misses = resolver.getCacheMisses();
+		for (String name: names) {
+			resolver.resolve(null, name, false);
+		}
+		assertEquals(misses, resolver.getCacheMisses());
+	}
+	
+	@Test
+	public void testSupertypesAfterAddingInterface() throws IOException {
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		ExternalClassInfo list = resolver.resolve(null, "java/util/List", false);
+		ExternalClassInfo collection = resolver.resolve(null, "java/util/Collection", false);
+		
+		byte [] data = IOUtils.toByteArray(Thread.currentThread().getContextClassLoader().getResourceAsStream("org/jasm/test/testclass/HelloWorld.class"));
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0);
+		clazz.resolve();
+		ExternalClassInfo info = ExternalClassInfo.createFromClass(clazz);
+		//computes the closure
+		assertFalse(info.isAssignableTo(list));
+		
+		info.addInterface(list);
+		assertTrue(info.isAssignableTo(list));
+		assertTrue(info.isAssignableTo(collection));
+	}
+	
+	@Test
+	public void testMemberKey() {
+		assertEquals(new MemberKey("a/B", "m", "()V"), new MemberKey("a/B", "m", "()V"));
+		assertEquals(new MemberKey("a/B", "m", "()V").hashCode(), new MemberKey("a/B", "m", "()V").hashCode());
+		assertEquals(new MemberKey("m", "()V"), new MemberKey("m", "()V"));
+		assertFalse(new MemberKey("m", "()V").equals(new MemberKey("a/B", "m", "()V")));
+		assertFalse(new MemberKey("a/B", "m", "()V").equals(new MemberKey("a/B", "m", "()I")));
+		assertEquals("a/B.m@()V", new MemberKey("a/B", "m", "()V").toString());
+	}
+	
+}
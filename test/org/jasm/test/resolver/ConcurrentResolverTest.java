@@ -0,0 +1,195 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.print.PrettyPrinter;
+import org.jasm.item.clazz.Clazz;
+import org.jasm.parser.AssemblerParser;
+import org.jasm.parser.SimpleParserErrorListener;
+import org.jasm.resolver.ClassInfoResolver;
+import org.jasm.resolver.ClassLoaderClasspathEntry;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.IClassPathEntry;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ConcurrentResolverTest {
+	
+	private Logger log = LoggerFactory.getLogger(this.getClass());
+	
+	private static final String [] CLASSES = {
+		"java/util/HashMap", "java/util/ArrayList", "java/util/LinkedList", "java/util/TreeMap",
+		"java/util/concurrent/ConcurrentHashMap", "java/lang/StringBuilder", "java/io/PrintStream",
+		"java/util/ArrayDeque", "java/util/LinkedHashMap", "java/lang/Integer"
+	};
+	
+	private static final String [] TO_VERIFY = {
+		"org/jasm/test/testclass/Class2.class",
+		"org/jasm/test/testclass/HelloWorld.class",
+		"org/jasm/test/testclass/ClassWithManyBranches.class",
+		"org/jasm/test/testclass/LambdaExample.class"
+	};
+	
+	@Test
+	public void testClassesAreLoadedOnce() throws Exception {
+		final CountingEntry entry = new CountingEntry(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		final ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(entry);
+		
+		List<List<ExternalClassInfo>> results = runConcurrently(8, new Callable<List<ExternalClassInfo>>() {
+			@Override
+			public List<ExternalClassInfo> call() throws Exception {
+				List<ExternalClassInfo> result = new ArrayList<ExternalClassInfo>();
+				for (String name: CLASSES) {
+					result.add(resolver.resolve(null, name, false));
+					result.add(resolver.resolve(null, "["+"L"+name+";", false));
+				}
+				assertNull(resolver.resolve(null, "no/such/Clazz", false));
+				return result;
+			}
+		});
+		
+		for (List<ExternalClassInfo> result: results) {
+			for (int i=0;i<result.size(); i++) {
+				assertNotNull(result.get(i));
+				assertSame(results.get(0).get(i), result.get(i));
+			}
+		}
+		for (Map.Entry<String, AtomicInteger> e: entry.counts.entrySet()) {
+			assertEquals(e.getKey(), 1, e.getValue().get());
+		}
+		assertEquals(1, entry.counts.get("java/lang/Object").get());
+	}
+	
+	@Test
+	public void testVerificationScaling() throws Exception {
+		final List<String> sources = new ArrayList<String>();
+		for (String name: TO_VERIFY) {
+			sources.add(disassemble(name));
+		}
+		//warm up
+		ClassInfoResolver warmUp = new ClassInfoResolver();
+		warmUp.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+		for (String source: sources) {
+			verify(source, warmUp);
+		}
+		int repeats = 20;
+		for (int threads: new int [] {1,2,4,8}) {
+			final ClassInfoResolver resolver = new ClassInfoResolver();
+			resolver.add(new ClassLoaderClasspathEntry(Thread.currentThread().getContextClassLoader()));
+			final int perThread = repeats/threads+1;
+			long start = System.nanoTime();
+			List<Integer> verified = runConcurrently(threads, new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					int count = 0;
+					for (int i=0;i<perThread; i++) {
+						for (String source: sources) {
+							verify(source, resolver);
+							count++;
+						}
+					}
+					return count;
+				}
+			});
+			long time = System.nanoTime()-start;
+			int count = 0;
+			for (Integer c: verified) {
+				count+=c;
+			}
+			log.info(threads+" thread(s): verified "+count+" classes in "+(time/1000000)+" ms, "+(count*1000000000L/time)+" classes/s");
+		}
+	}
+	
+	private void verify(String source, ClassInfoResolver resolver) {
+		AssemblerParser parser = new AssemblerParser();
+		parser.addErrorListener(new SimpleParserErrorListener());
+		Clazz clazz = parser.parse(new StringReader(source));
+		assertEquals(0, parser.getErrorCounter());
+		clazz.setResolver(resolver);
+		clazz.verify();
+		if (parser.getErrorCounter() > 0) {
+			parser.flushErrors();
+		}
+		assertEquals(0, parser.getErrorCounter());
+	}
+	
+	private String disassemble(String name) throws IOException {
+		InputStream inp = Thread.currentThread().getContextClassLoader().getResourceAsStream(name);
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		Clazz clazz = new Clazz();
+		clazz.read(new ByteArrayByteBuffer(data), 0L);
+		clazz.resolve();
+		clazz.updateMetadata();
+		StringWriter sw = new StringWriter();
+		PrintWriter writer = new PrintWriter(sw);
+		new PrettyPrinter(writer).printItem(clazz);
+		writer.close();
+		return sw.toString();
+	}
+	
+	private <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+			for (int i=0;i<threads; i++) {
+				futures.add(pool.submit(task));
+			}
+			List<T> result = new ArrayList<T>();
+			for (Future<T> f: futures) {
+				result.add(f.get());
+			}
+			return result;
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	private static class CountingEntry implements IClassPathEntry {
+		
+		private IClassPathEntry delegate;
+		private Map<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+		
+		CountingEntry(IClassPathEntry delegate) {
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public byte[] findBytes(String resourceName) {
+			return delegate.findBytes(resourceName);
+		}
+		
+		@Override
+		public ExternalClassInfo findClass(String className) {
+			counts.putIfAbsent(className, new AtomicInteger());
+			counts.get(className).incrementAndGet();
+			return delegate.findClass(className);
+		}
+		
+		@Override
+		public boolean isInvalid() {
+			return delegate.isInvalid();
+		}
+		
+	}
+	
+}
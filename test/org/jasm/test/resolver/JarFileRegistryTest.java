@@ -0,0 +1,128 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.JarFileClassPathEntry;
+import org.jasm.resolver.JarFileRegistry;
+import org.jasm.resolver.ZipFileClassPathEntry;
+import org.junit.Test;
+
+public class JarFileRegistryTest {
+	
+	private static final String CLASS_NAME = "org/jasm/test/testclass/Class2";
+	
+	@Test
+	public void testSharedJars() throws IOException {
+		File root = Files.createTempDirectory("jasm").toFile();
+		try {
+			byte [] data = readClass(CLASS_NAME);
+			File jar = new File(root, "classes.jar");
+			ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+			out.putNextEntry(new ZipEntry(CLASS_NAME+".class"));
+			out.write(data);
+			out.closeEntry();
+			out.close();
+			
+			JarFileClassPathEntry entry1 = new JarFileClassPathEntry(jar);
+			JarFileClassPathEntry entry2 = new JarFileClassPathEntry(jar);
+			ZipFileClassPathEntry entry3 = new ZipFileClassPathEntry(jar);
+			int open = JarFileRegistry.getOpenJars();
+			assertArrayEquals(data, entry1.findBytes(CLASS_NAME+".class"));
+			assertArrayEquals(data, entry2.findBytes(CLASS_NAME+".class"));
+			assertArrayEquals(data, entry3.findBytes(CLASS_NAME+".class"));
+			assertNull(entry1.findBytes("no/such/Clazz.class"));
+			assertTrue(entry1.getPackages().contains("org/jasm/test/testclass"));
+			assertTrue(entry2.getPackages().contains("org/jasm/test/testclass"));
+			assertEquals(open+1, JarFileRegistry.getOpenJars());
+			assertArrayEquals(data, JarFileRegistry.readEntry(new File(jar.getAbsolutePath()), CLASS_NAME+".class"));
+			assertEquals(open+1, JarFileRegistry.getOpenJars());
+			
+			//closed jars are opened again
+			JarFileRegistry.closeAll();
+			assertEquals(0, JarFileRegistry.getOpenJars());
+			ExternalClassInfo info = entry1.findClass(CLASS_NAME);
+			assertEquals(CLASS_NAME, info.getName());
+			assertArrayEquals(data, entry3.findBytes(CLASS_NAME+".class"));
+			assertEquals(1, JarFileRegistry.getOpenJars());
+		} finally {
+			JarFileRegistry.closeAll();
+			FileUtils.deleteDirectory(root);
+		}
+	}
+	
+	@Test
+	public void testReadsWhileClosing() throws Exception {
+		File root = Files.createTempDirectory("jasm").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			byte [] data = readClass(CLASS_NAME);
+			File zip = new File(root, "classes.zip");
+			ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip));
+			out.putNextEntry(new ZipEntry(CLASS_NAME+".class"));
+			out.write(data);
+			out.closeEntry();
+			out.close();
+			
+			//the zip entry reads through the shared JarFile only
+			final ZipFileClassPathEntry entry = new ZipFileClassPathEntry(zip);
+			final AtomicBoolean done = new AtomicBoolean(false);
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int i=0;i<4; i++) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int found = 0;
+						for (int i=0;i<2000; i++) {
+							if (entry.findClass(CLASS_NAME) != null) {
+								found++;
+							}
+						}
+						return found;
+					}
+				}));
+			}
+			while (!done.get()) {
+				JarFileRegistry.closeAll();
+				Thread.sleep(1);
+				done.set(true);
+				for (Future<Integer> result: results) {
+					done.set(done.get() && result.isDone());
+				}
+			}
+			for (Future<Integer> result: results) {
+				assertEquals(2000, result.get().intValue());
+			}
+			assertFalse(entry.isInvalid());
+		} finally {
+			executor.shutdown();
+			JarFileRegistry.closeAll();
+			FileUtils.deleteDirectory(root);
+		}
+	}
+	
+	private byte [] readClass(String name) throws IOException {
+		InputStream inp = ClassLoader.getSystemResourceAsStream(name+".class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		return data;
+	}
+	
+}
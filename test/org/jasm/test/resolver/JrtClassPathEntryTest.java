@@ -0,0 +1,35 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import org.jasm.resolver.ClassInfoResolver;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.JrtClassPathEntry;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class JrtClassPathEntryTest {
+	
+	@Test
+	public void testRuntimeClasses() {
+		JrtClassPathEntry entry = JrtClassPathEntry.create();
+		//only JDK 9 and later have a module image
+		Assume.assumeNotNull(entry);
+		
+		assertTrue(entry.getPackages().contains("java/lang"));
+		assertTrue(entry.getPackages().contains("java/sql"));
+		assertNotNull(entry.findBytes("java/lang/Object.class"));
+		assertNull(entry.findBytes("java/lang/NoSuchClazz.class"));
+		assertNull(entry.findBytes("no/such/Clazz.class"));
+		
+		ClassInfoResolver resolver = new ClassInfoResolver();
+		resolver.add(entry);
+		ExternalClassInfo info = resolver.resolve(null, "java/util/HashMap", false);
+		assertNotNull(info);
+		assertEquals("java/util/AbstractMap", info.getSuperName());
+		assertNotNull(resolver.resolve(null, "java/sql/Connection", false));
+		assertNotNull(resolver.resolveMethod(null, "java/util/ArrayList", "size", "()I", false));
+		assertNull(resolver.resolve(null, "no/such/Clazz", false));
+	}
+	
+}
@@ -0,0 +1,134 @@
+package org.jasm.test.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.jasm.bytebuffer.ByteArrayByteBuffer;
+import org.jasm.bytebuffer.IByteBuffer;
+import org.jasm.resolver.ClassHeaderReader;
+import org.jasm.resolver.ExternalClassInfo;
+import org.jasm.resolver.JarFileClassPathEntry;
+import org.jasm.resolver.MethodInfo;
+import org.junit.Test;
+
+public class PersistentClassInfoCacheTest {
+	
+	private static final String [] CLASSES = {
+		"org/jasm/test/testclass/Class2",
+		"org/jasm/test/testclass/Days",
+		"org/jasm/test/testclass/LambdaExample",
+		"java/util/HashMap"
+	};
+	
+	@Test
+	public void testCache() throws IOException {
+		File root = Files.createTempDirectory("jasm").toFile();
+		try {
+			File jar = new File(root, "classes.jar");
+			ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+			for (String name: CLASSES) {
+				out.putNextEntry(new ZipEntry(name+".class"));
+				out.write(readClass(name));
+				out.closeEntry();
+			}
+			out.close();
+			File cacheDir = new File(root, "cache");
+			
+			CountingJarEntry entry = new CountingJarEntry(jar, cacheDir);
+			assertClasses(entry);
+			assertEquals(CLASSES.length, entry.count);
+			assertEquals(1, cacheDir.listFiles().length);
+			
+			//the next run uses the cache
+			entry = new CountingJarEntry(jar, cacheDir);
+			assertClasses(entry);
+			assertNull(entry.findClass("no/such/Clazz"));
+			assertEquals(0, entry.count);
+			
+			//changed jars are read again
+			assertTrue(jar.setLastModified(jar.lastModified()-10000));
+			entry = new CountingJarEntry(jar, cacheDir);
+			assertClasses(entry);
+			assertEquals(CLASSES.length, entry.count);
+			assertEquals(1, cacheDir.listFiles().length);
+			
+			//corrupt caches are rebuilt
+			File cacheFile = cacheDir.listFiles()[0];
+			FileUtils.writeByteArrayToFile(cacheFile, new byte[]{1,2,3});
+			entry = new CountingJarEntry(jar, cacheDir);
+			assertClasses(entry);
+			
+			//as are truncated ones, whose header is still valid
+			byte [] data = FileUtils.readFileToByteArray(cacheFile);
+			FileUtils.writeByteArrayToFile(cacheFile, Arrays.copyOf(data, data.length-10));
+			entry = new CountingJarEntry(jar, cacheDir);
+			assertClasses(entry);
+			assertEquals(CLASSES.length, entry.count);
+			assertEquals(data.length, cacheFile.length());
+		} finally {
+			FileUtils.deleteDirectory(root);
+		}
+	}
+	
+	private void assertClasses(JarFileClassPathEntry entry) throws IOException {
+		for (String name: CLASSES) {
+			ExternalClassInfo expected = ClassHeaderReader.read(new ByteArrayByteBuffer(readClass(name)));
+			ExternalClassInfo info = entry.findClass(name);
+			assertNotNull(info);
+			assertNotSame(info, entry.findClass(name));
+			assertEquals(expected.getName(), info.getName());
+			assertEquals(expected.getSuperName(), info.getSuperName());
+			assertEquals(expected.getInterfacesNames(), info.getInterfacesNames());
+			assertEquals(expected.getModifier().getValue(), info.getModifier().getValue());
+			assertEquals(expected.getFields().size(), info.getFields().size());
+			for (int i=0;i<info.getFields().size(); i++) {
+				assertEquals(expected.getFields().get(i).getName(), info.getFields().get(i).getName());
+				assertEquals(expected.getFields().get(i).getDescriptor().getValue(), info.getFields().get(i).getDescriptor().getValue());
+				assertEquals(expected.getFields().get(i).getModifier().getValue(), info.getFields().get(i).getModifier().getValue());
+			}
+			assertEquals(expected.getMethods().size(), info.getMethods().size());
+			for (int i=0;i<info.getMethods().size(); i++) {
+				MethodInfo m = info.getMethods().get(i);
+				assertEquals(expected.getMethods().get(i).getName(), m.getName());
+				assertEquals(expected.getMethods().get(i).getDescriptor().getValue(), m.getDescriptor().getValue());
+				assertEquals(expected.getMethods().get(i).getModifier().getValue(), m.getModifier().getValue());
+				assertSame(m, info.getMethod(m.getName(), m.getDescriptor().getValue()));
+			}
+		}
+	}
+	
+	private byte [] readClass(String name) throws IOException {
+		InputStream inp = ClassLoader.getSystemResourceAsStream(name+".class");
+		byte [] data = IOUtils.toByteArray(inp);
+		inp.close();
+		return data;
+	}
+	
+	private static class CountingJarEntry extends JarFileClassPathEntry {
+		
+		private int count = 0;
+		
+		CountingJarEntry(File jarFile, File cacheDir) {
+			super(jarFile);
+			setCacheDirectory(cacheDir);
+		}
+		
+		@Override
+		protected IByteBuffer findBuffer(String resourceName) {
+			count++;
+			return super.findBuffer(resourceName);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,38 @@
+package org.jasm.test.testclass;
+
+public class ControlFlowMethods {
+	
+	public int loop(int n) {
+		int sum = 0;
+		for (int i=0;i<n; i++) {
+			if (i % 2 == 0) {
+				sum+=i;
+			}
+		}
+		return sum;
+	}
+	
+	public String switchMethod(int a) {
+		String result;
+		switch (a) {
+			case 1: result = "one"; break;
+			case 2: result = "two"; break;
+			case 3: result = "three"; break;
+			default: result = "many";
+		}
+		return result;
+	}
+	
+	public int tryCatch(int value) {
+		int result = -1;
+		try {
+			result = 100 / value;
+		} catch (ArithmeticException e) {
+			result = 0;
+		} finally {
+			value = 0;
+		}
+		return result;
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.jasm.test.verify;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +27,7 @@ import org.jasm.item.instructions.verify.types.VerificationType;
 import org.jasm.type.descriptor.MethodDescriptor;
 import org.jasm.type.descriptor.TypeDescriptor;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 public class VerificationTest implements IClassQuery {
@@ -282,6 +284,71 @@ public class VerificationTest implements IClassQuery {
 		Assert.assertTrue(frame.copy().equals(frame));
 	}
 	
+	@Test
+	public void copyOnWriteFrameTest() {
+		Frame frame = new Frame(10, 5);
+		frame.push(VerificationType.INT);
+		frame.store(VerificationType.INT, 2);
+		frame.push(VerificationType.FLOAT);
+		Frame copy = frame.copy();
+		Assert.assertEquals(3, copy.getActiveLocals());
+		
+		copy.push(VerificationType.LONG);
+		copy.store(VerificationType.LONG, 4);
+		copy.store(VerificationType.FLOAT, 0);
+		Assert.assertEquals(VerificationType.FLOAT, frame.getTypeOnStack(0));
+		Assert.assertEquals(1, frame.getCurrentStackSize());
+		Assert.assertEquals(VerificationType.TOP, frame.getTypeInRegister(0));
+		Assert.assertEquals(VerificationType.TOP, frame.getTypeInRegister(4));
+		Assert.assertEquals(3, frame.getActiveLocals());
+		Assert.assertEquals(VerificationType.FLOAT, copy.getTypeInRegister(0));
+		Assert.assertEquals(VerificationType.LONG, copy.getTypeInRegister(4));
+		Assert.assertEquals(6, copy.getActiveLocals());
+		Assert.assertEquals(0, copy.getCurrentStackSize());
+		
+		frame.push(VerificationType.INT);
+		frame.store(VerificationType.INT, 1);
+		Assert.assertEquals(VerificationType.TOP, copy.getTypeInRegister(1));
+		
+		//the stack grows beyond its initial size, if the maximal size is unknown
+		Frame unbounded = new Frame(1, Integer.MAX_VALUE);
+		for (int i=0;i<100; i++) {
+			unbounded.copy().push(VerificationType.INT);
+			unbounded.push(VerificationType.LONG);
+		}
+		Assert.assertEquals(200, unbounded.getCurrentStackSize());
+		Assert.assertEquals(VerificationType.LONG, unbounded.getTypeOnStack(99));
+	}
+	
+	@Test
+	public void copiesShareLocalsTest() {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		long threadId = Thread.currentThread().getId();
+		
+		int maxLocals = 1000;
+		int copies = 10000;
+		Frame frame = new Frame(maxLocals, 5);
+		frame.push(VerificationType.INT);
+		frame.store(VerificationType.INT, maxLocals-1);
+		List<Frame> result = new ArrayList<Frame>(copies);
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+		for (int i=0;i<copies; i++) {
+			Frame copy = frame.copy();
+			copy.push(VerificationType.INT);
+			result.add(copy);
+		}
+		allocated = threads.getThreadAllocatedBytes(threadId)-allocated;
+		//a copy of the locals alone would take at least 4 bytes per register
+		Assert.assertTrue(allocated+" bytes allocated", allocated < (long)copies*maxLocals);
+		for (Frame copy: result) {
+			Assert.assertEquals(VerificationType.INT, copy.getTypeInRegister(maxLocals-1));
+			Assert.assertEquals(1, copy.getCurrentStackSize());
+		}
+		Assert.assertEquals(0, frame.getCurrentStackSize());
+	}
+	
 	@Test
 	public void frameOperationsTest() {
 		Frame frame = new Frame(10, 5);